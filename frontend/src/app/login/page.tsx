@@ -19,11 +19,11 @@ export default function LoginPage() {
         setLoading(true);
 
         try {
-            const response = await api.post<{ token: string }>('/auth/login', {
+            const response = await api.post<{ token: string; refreshToken: string }>('/auth/login', {
                 email,
                 password,
             });
-            login(response.token, email);
+            login(response.token, email, response.refreshToken);
         } catch (err: any) {
             setError(err.message || 'Failed to login');
         } finally {
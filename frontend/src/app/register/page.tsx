@@ -26,12 +26,12 @@ export default function RegisterPage() {
             });
 
             // Auto login after register
-            const response = await api.post<{ token: string }>('/auth/login', {
+            const response = await api.post<{ token: string; refreshToken: string }>('/auth/login', {
                 email,
                 password,
             });
 
-            login(response.token, email);
+            login(response.token, email, response.refreshToken);
         } catch (err: any) {
             setError(err.message || 'Failed to create account');
         } finally {
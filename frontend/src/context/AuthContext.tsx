@@ -12,7 +12,7 @@ interface User {
 interface AuthContextType {
     user: User | null;
     token: string | null;
-    login: (token: string, email: string) => void;
+    login: (token: string, email: string, refreshToken?: string) => void;
     logout: () => void;
     isAuthenticated: boolean;
     isLoading: boolean;
@@ -41,9 +41,12 @@ export function AuthProvider({ children }: { children: React.ReactNode }) {
         setIsLoading(false);
     }, []);
 
-    const login = (newToken: string, email: string) => {
+    const login = (newToken: string, email: string, refreshToken?: string) => {
         localStorage.setItem('token', newToken);
         localStorage.setItem('userEmail', email);
+        if (refreshToken) {
+            localStorage.setItem('refreshToken', refreshToken);
+        }
         setToken(newToken);
         setUser({ id: 0, email });
         router.push('/');
@@ -51,14 +54,17 @@ export function AuthProvider({ children }: { children: React.ReactNode }) {
 
     const logout = async () => {
         const currentToken = localStorage.getItem('token'); // Use a different name to avoid conflict with setToken
+        const refreshToken = localStorage.getItem('refreshToken');
         if (currentToken) {
             try {
-                // Call backend logout endpoint to blacklist the token
+                // Call backend logout endpoint to blacklist the token and revoke the refresh token
                 await fetch('/api/auth/logout', {
                     method: 'POST',
                     headers: {
                         'Authorization': `Bearer ${currentToken}`,
+                        'Content-Type': 'application/json',
                     },
+                    body: JSON.stringify({ refreshToken }),
                 });
             } catch (error) {
                 console.error('Logout error:', error);
@@ -66,6 +72,7 @@ export function AuthProvider({ children }: { children: React.ReactNode }) {
             }
         }
         localStorage.removeItem('token');
+        localStorage.removeItem('refreshToken');
         localStorage.removeItem('userEmail'); // Keep this line for consistency with login and initial setup
         setToken(null); // This is crucial for isAuthenticated to update correctly
         setUser(null);
@@ -5,6 +5,8 @@ interface RequestOptions extends RequestInit {
 }
 
 class ApiClient {
+    private refreshing: Promise<boolean> | null = null;
+
     private getHeaders(): Record<string, string> {
         const headers: Record<string, string> = {
             'Content-Type': 'application/json',
@@ -20,7 +22,34 @@ class ApiClient {
         return headers;
     }
 
-    async request<T>(endpoint: string, options: RequestOptions = {}): Promise<T> {
+    // Access tokens are short-lived; trade the refresh token for a new pair once.
+    private refreshTokens(): Promise<boolean> {
+        if (typeof window === 'undefined') return Promise.resolve(false);
+        const refreshToken = localStorage.getItem('refreshToken');
+        if (!refreshToken) return Promise.resolve(false);
+
+        if (!this.refreshing) {
+            this.refreshing = fetch(`${BASE_URL}/auth/refresh`, {
+                method: 'POST',
+                headers: { 'Content-Type': 'application/json' },
+                body: JSON.stringify({ refreshToken }),
+            })
+                .then(async (res) => {
+                    if (!res.ok) return false;
+                    const data = await res.json();
+                    localStorage.setItem('token', data.token);
+                    localStorage.setItem('refreshToken', data.refreshToken);
+                    return true;
+                })
+                .catch(() => false)
+                .finally(() => {
+                    this.refreshing = null;
+                });
+        }
+        return this.refreshing;
+    }
+
+    async request<T>(endpoint: string, options: RequestOptions = {}, retried = false): Promise<T> {
         const url = `${BASE_URL}${endpoint}`;
         const headers = { ...this.getHeaders(), ...options.headers };
 
@@ -29,6 +58,12 @@ class ApiClient {
             headers,
         });
 
+        if ((response.status === 401 || response.status === 403) && !retried && !endpoint.startsWith('/auth/')) {
+            if (await this.refreshTokens()) {
+                return this.request<T>(endpoint, options, true);
+            }
+        }
+
         if (!response.ok) {
             if (response.status === 401) {
                 // Handle unauthorized (e.g., redirect to login)
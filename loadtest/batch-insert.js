@@ -0,0 +1,69 @@
+// k6 throughput test of POST /api/transactions/batch against the single-insert
+// POST /api/transactions, in rows inserted per second. MODE picks the path;
+// compare-batch-insert.sh runs both and prints the two rates side by side.
+//
+//   k6 run -e BASE_URL=http://localhost:8081 -e MODE=batch -e BATCH=500 loadtest/batch-insert.js
+import http from 'k6/http';
+import { check } from 'k6';
+import { Counter } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8081';
+const MODE = __ENV.MODE || 'batch';
+const BATCH = parseInt(__ENV.BATCH || '500');
+const USERS = parseInt(__ENV.USERS || '10');
+
+const rows = new Counter('rows_inserted');
+
+export const options = {
+    scenarios: {
+        insert: {
+            executor: 'constant-vus',
+            vus: parseInt(__ENV.VUS || '20'),
+            duration: __ENV.DURATION || '60s',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    thresholds: {
+        'http_req_failed': ['rate<0.01'],
+    },
+};
+
+const json = { headers: { 'Content-Type': 'application/json' } };
+
+// separate users per run so neither mode starts on the other's rows
+export function setup() {
+    const run = Date.now();
+    const tokens = [];
+    for (let i = 0; i < USERS; i++) {
+        const creds = JSON.stringify({ email: `batch-${MODE}-${run}-${i}@example.com`, password: 'load-test' });
+        http.post(`${BASE_URL}/api/auth/register`, creds, json);
+        tokens.push(http.post(`${BASE_URL}/api/auth/login`, creds, json).json('token'));
+    }
+    return { tokens };
+}
+
+function auth(data) {
+    const token = data.tokens[(__VU + __ITER) % data.tokens.length];
+    return { headers: { 'Content-Type': 'application/json', Authorization: `Bearer ${token}` } };
+}
+
+function row(i) {
+    return {
+        amount: (Math.random() * 500).toFixed(2),
+        merchant: `Merchant ${i % 50}`,
+        type: 'DEBIT',
+        source: 'LOADTEST',
+    };
+}
+
+export default function (data) {
+    if (MODE === 'single') {
+        const res = http.post(`${BASE_URL}/api/transactions`, JSON.stringify(row(__ITER)), auth(data));
+        if (check(res, { 'single 200': (r) => r.status === 200 })) rows.add(1);
+        return;
+    }
+    const transactions = [];
+    for (let i = 0; i < BATCH; i++) transactions.push(row(__ITER * BATCH + i));
+    const res = http.post(`${BASE_URL}/api/transactions/batch`, JSON.stringify({ transactions }), auth(data));
+    if (check(res, { 'batch 200': (r) => r.status === 200 })) rows.add(BATCH);
+}
@@ -0,0 +1,25 @@
+#!/usr/bin/env bash
+# Runs loadtest/batch-insert.js once through the single-insert endpoint and once
+# through the batch endpoint against a running app, and prints rows/s for each.
+# Needs: k6, jq, and the app with the Postgres from docker-compose.
+#
+#   loadtest/compare-batch-insert.sh [batch size] [vus] [duration]
+set -euo pipefail
+
+BATCH="${1:-500}"
+VUS="${2:-20}"
+DURATION="${3:-60s}"
+BASE_URL="${BASE_URL:-http://localhost:8081}"
+OUT="${OUT:-loadtest/results}"
+mkdir -p "$OUT"
+
+for mode in single batch; do
+  echo "== $mode"
+  k6 run -e BASE_URL="$BASE_URL" -e MODE="$mode" -e BATCH="$BATCH" -e VUS="$VUS" -e DURATION="$DURATION" \
+         --summary-export "$OUT/insert-$mode-summary.json" loadtest/batch-insert.js | tee "$OUT/insert-$mode-k6.txt"
+done
+
+for mode in single batch; do
+  echo "== $mode: rows/s, request p99 (ms)"
+  jq -r '[.metrics.rows_inserted.rate, .metrics.http_req_duration["p(99)"]] | @tsv' "$OUT/insert-$mode-summary.json"
+done
@@ -0,0 +1,44 @@
+#!/usr/bin/env bash
+# Runs loadtest/transactions.js against the app started in platform-thread and
+# virtual-thread mode, one after the other, and keeps both k6 summaries.
+# Needs: a built jar (mvn package), JDK 21+, k6, and the Postgres from docker-compose.
+#
+#   loadtest/compare-thread-modes.sh [vus] [duration]
+set -euo pipefail
+
+VUS="${1:-200}"
+DURATION="${2:-60s}"
+PORT="${PORT:-8081}"
+MANAGEMENT_PORT="${MANAGEMENT_PORT:-9091}"
+JAR="${JAR:-target/ExpenseTracker-0.0.1-SNAPSHOT.jar}"
+OUT="${OUT:-loadtest/results}"
+mkdir -p "$OUT"
+
+run_mode() {
+  local mode="$1" profiles="$2"
+  echo "== $mode threads"
+  java -jar "$JAR" --server.port="$PORT" --management.server.port="$MANAGEMENT_PORT" \
+       --spring.profiles.active="$profiles" \
+       --spring.jpa.show-sql=false > "$OUT/$mode-app.log" 2>&1 &
+  local pid=$!
+  trap "kill $pid 2>/dev/null || true" EXIT
+  until curl -sf "http://localhost:$MANAGEMENT_PORT/actuator/health" > /dev/null; do sleep 1; done
+
+  k6 run -e BASE_URL="http://localhost:$PORT" -e VUS="$VUS" -e DURATION="$DURATION" \
+         --summary-export "$OUT/$mode-summary.json" loadtest/transactions.js | tee "$OUT/$mode-k6.txt"
+  curl -s "http://localhost:$MANAGEMENT_PORT/actuator/metrics/hikaricp.connections.pending" > "$OUT/$mode-hikari-pending.json" || true
+
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  trap - EXIT
+}
+
+run_mode platform default
+run_mode virtual virtual-threads
+
+for mode in platform virtual; do
+  echo "== $mode: requests/s, create p99, list p99 (ms)"
+  jq -r '[.metrics.http_reqs.rate,
+          .metrics["http_req_duration{scenario:create}"]["p(99)"],
+          .metrics["http_req_duration{scenario:list}"]["p(99)"]] | @tsv' "$OUT/$mode-summary.json"
+done
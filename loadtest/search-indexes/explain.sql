@@ -0,0 +1,64 @@
+-- EXPLAIN (ANALYZE, BUFFERS) of the search shapes V11 targets, for the heavy
+-- seeded user, first with the indexes and then with V11's index dropped inside
+-- a rolled-back transaction. Queries match TransactionSearchRepository.
+\set ON_ERROR_STOP on
+SELECT id AS user_id FROM users WHERE email = 'seed-heavy@example.com' \gset
+-- the least used account: the slice an index range scan gains most on
+SELECT account_id FROM transactions WHERE user_id = :user_id
+GROUP BY account_id ORDER BY count(*) LIMIT 1 \gset
+
+\echo '== account filter, first page'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT t.id, t.account_id, t.merchant, t.amount, t.currency, t.type, t.category_id,
+       c.name AS category_name, t.source, t.txn_date
+FROM transactions t LEFT JOIN categories c ON c.id = t.category_id
+WHERE t.user_id = :user_id AND t.account_id = :account_id
+ORDER BY t.txn_date DESC, t.id DESC LIMIT 51;
+
+\echo '== account filter, date range and type'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT t.id, t.account_id, t.merchant, t.amount, t.currency, t.type, t.category_id,
+       c.name AS category_name, t.source, t.txn_date
+FROM transactions t LEFT JOIN categories c ON c.id = t.category_id
+WHERE t.user_id = :user_id AND t.txn_date >= TIMESTAMP '2025-01-01' AND t.txn_date < TIMESTAMP '2025-04-01'
+  AND t.account_id = :account_id AND UPPER(t.type) = 'CREDIT'
+ORDER BY t.txn_date DESC, t.id DESC LIMIT 51;
+
+\echo '== account filter, deep keyset page'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT t.id, t.account_id, t.merchant, t.amount, t.currency, t.type, t.category_id,
+       c.name AS category_name, t.source, t.txn_date
+FROM transactions t LEFT JOIN categories c ON c.id = t.category_id
+WHERE t.user_id = :user_id AND t.account_id = :account_id
+  AND (t.txn_date, t.id) < (TIMESTAMP '2024-06-01', 9223372036854775807)
+ORDER BY t.txn_date DESC, t.id DESC LIMIT 51;
+
+BEGIN;
+DROP INDEX idx_transactions_user_account_date_id;
+
+\echo '== without idx_transactions_user_account_date_id: account filter, first page'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT t.id, t.account_id, t.merchant, t.amount, t.currency, t.type, t.category_id,
+       c.name AS category_name, t.source, t.txn_date
+FROM transactions t LEFT JOIN categories c ON c.id = t.category_id
+WHERE t.user_id = :user_id AND t.account_id = :account_id
+ORDER BY t.txn_date DESC, t.id DESC LIMIT 51;
+
+\echo '== without idx_transactions_user_account_date_id: account filter, date range and type'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT t.id, t.account_id, t.merchant, t.amount, t.currency, t.type, t.category_id,
+       c.name AS category_name, t.source, t.txn_date
+FROM transactions t LEFT JOIN categories c ON c.id = t.category_id
+WHERE t.user_id = :user_id AND t.txn_date >= TIMESTAMP '2025-01-01' AND t.txn_date < TIMESTAMP '2025-04-01'
+  AND t.account_id = :account_id AND UPPER(t.type) = 'CREDIT'
+ORDER BY t.txn_date DESC, t.id DESC LIMIT 51;
+
+\echo '== without idx_transactions_user_account_date_id: account filter, deep keyset page'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT t.id, t.account_id, t.merchant, t.amount, t.currency, t.type, t.category_id,
+       c.name AS category_name, t.source, t.txn_date
+FROM transactions t LEFT JOIN categories c ON c.id = t.category_id
+WHERE t.user_id = :user_id AND t.account_id = :account_id
+  AND (t.txn_date, t.id) < (TIMESTAMP '2024-06-01', 9223372036854775807)
+ORDER BY t.txn_date DESC, t.id DESC LIMIT 51;
+ROLLBACK;
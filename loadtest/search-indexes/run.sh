@@ -0,0 +1,18 @@
+#!/usr/bin/env bash
+# Seeds ~10M transactions and records the search plans that justify V11.
+# Needs psql and the docker-compose Postgres, migrated by one app start.
+# Connection comes from the usual PG* variables (PGHOST, PGUSER, PGDATABASE, ...).
+#
+#   loadtest/search-indexes/run.sh [--skip-seed]
+set -euo pipefail
+
+DIR="$(cd "$(dirname "$0")" && pwd)"
+OUT="${OUT:-loadtest/results}"
+mkdir -p "$OUT"
+
+if [[ "${1:-}" != "--skip-seed" ]]; then
+  time psql -X -q -f "$DIR/seed.sql"
+fi
+# run twice and keep the second, so the plans read a warm cache like production does
+psql -X -q -f "$DIR/explain.sql" > /dev/null
+psql -X -q -f "$DIR/explain.sql" | tee "$OUT/search-indexes-explain.txt"
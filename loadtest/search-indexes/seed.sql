@@ -0,0 +1,54 @@
+-- Seeds ~10M transactions for the /api/transactions/search index plans (V8, V11).
+-- Run against a database the app has migrated; rows are tagged 'seed-' / 'SEED'
+-- so they can be removed with: DELETE FROM users WHERE email LIKE 'seed-%';
+--
+-- Shape: 2,000 ordinary users with 4,500 rows each (9M) plus one heavy user
+-- with 1M rows, 3 accounts and 12 categories per user, ~3 years of dates.
+-- The heavy user is the case the indexes exist for: with only (user_id, ...)
+-- an account filter has to walk that user's rows until LIMIT matches.
+\set ON_ERROR_STOP on
+SELECT setseed(0.42);
+
+INSERT INTO users (email, password)
+SELECT 'seed-' || g || '@example.com', 'x' FROM generate_series(1, 2000) g;
+INSERT INTO users (email, password) VALUES ('seed-heavy@example.com', 'x');
+
+INSERT INTO accounts (user_id, name, type)
+SELECT u.id, a.name, a.type
+FROM users u
+CROSS JOIN (VALUES ('Savings', 'BANK'), ('Credit card', 'CARD'), ('Wallet', 'CASH')) AS a(name, type)
+WHERE u.email LIKE 'seed-%';
+
+INSERT INTO categories (user_id, name)
+SELECT u.id, 'Category ' || c
+FROM users u CROSS JOIN generate_series(1, 12) c
+WHERE u.email LIKE 'seed-%';
+
+CREATE TEMP TABLE seed_users AS
+SELECT u.id AS user_id,
+       CASE WHEN u.email = 'seed-heavy@example.com' THEN 1000000 ELSE 4500 END AS n,
+       (SELECT array_agg(a.id ORDER BY a.id) FROM accounts a WHERE a.user_id = u.id) AS accounts,
+       (SELECT array_agg(c.id ORDER BY c.id) FROM categories c WHERE c.user_id = u.id) AS categories
+FROM users u WHERE u.email LIKE 'seed-%';
+
+-- skewed like real data: most rows on the first account and a few categories
+INSERT INTO transactions (user_id, account_id, merchant, amount, currency, txn_date, type, category_id, source)
+SELECT s.user_id,
+       s.accounts[CASE WHEN r.a < 0.7 THEN 1 WHEN r.a < 0.9 THEN 2 ELSE 3 END],
+       'Merchant ' || floor(r.m * r.m * 500)::int,
+       round((1 + r.amt * r.amt * 2000)::numeric, 2),
+       'INR',
+       TIMESTAMP '2026-10-01' - (r.d * INTERVAL '1095 days'),
+       CASE WHEN r.t < 0.85 THEN 'DEBIT' ELSE 'CREDIT' END,
+       s.categories[1 + floor(r.c * r.c * 12)::int],
+       'SEED'
+FROM seed_users s
+CROSS JOIN LATERAL generate_series(1, s.n) g
+CROSS JOIN LATERAL (SELECT random() AS a, random() AS m, random() AS amt,
+                           random() AS d, random() AS t, random() AS c, g AS dummy) r;
+
+ANALYZE users;
+ANALYZE accounts;
+ANALYZE categories;
+ANALYZE transactions;
+SELECT count(*) AS seeded_transactions FROM transactions WHERE source = 'SEED';
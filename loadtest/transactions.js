@@ -0,0 +1,69 @@
+// k6 load test for POST /api/transactions and GET /api/transactions.
+// Run once per thread mode and compare the summaries; see compare-thread-modes.sh.
+//
+//   k6 run -e BASE_URL=http://localhost:8081 -e VUS=200 -e DURATION=60s loadtest/transactions.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8081';
+const USERS = parseInt(__ENV.USERS || '20');
+
+export const options = {
+    scenarios: {
+        create: {
+            executor: 'constant-vus',
+            exec: 'create',
+            vus: Math.ceil(parseInt(__ENV.VUS || '200') / 2),
+            duration: __ENV.DURATION || '60s',
+        },
+        list: {
+            executor: 'constant-vus',
+            exec: 'list',
+            vus: Math.floor(parseInt(__ENV.VUS || '200') / 2),
+            duration: __ENV.DURATION || '60s',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    thresholds: {
+        'http_req_failed': ['rate<0.01'],
+        // no-op thresholds so the summary reports each endpoint's latency separately
+        'http_req_duration{scenario:create}': ['p(99)>=0'],
+        'http_req_duration{scenario:list}': ['p(99)>=0'],
+    },
+};
+
+const json = { headers: { 'Content-Type': 'application/json' } };
+
+// one token per test user; the virtual users share them round-robin
+export function setup() {
+    const run = Date.now();
+    const tokens = [];
+    for (let i = 0; i < USERS; i++) {
+        const creds = JSON.stringify({ email: `load-${run}-${i}@example.com`, password: 'load-test' });
+        http.post(`${BASE_URL}/api/auth/register`, creds, json);
+        const res = http.post(`${BASE_URL}/api/auth/login`, creds, json);
+        tokens.push(res.json('token'));
+    }
+    return { tokens };
+}
+
+function auth(data) {
+    const token = data.tokens[(__VU + __ITER) % data.tokens.length];
+    return { headers: { 'Content-Type': 'application/json', Authorization: `Bearer ${token}` } };
+}
+
+export function create(data) {
+    const body = JSON.stringify({
+        amount: (Math.random() * 500).toFixed(2),
+        merchant: `Merchant ${__ITER % 50}`,
+        type: 'DEBIT',
+        source: 'LOADTEST',
+    });
+    const res = http.post(`${BASE_URL}/api/transactions`, body, auth(data));
+    check(res, { 'create 200': (r) => r.status === 200 });
+}
+
+export function list(data) {
+    const res = http.get(`${BASE_URL}/api/transactions?page=0&size=20`, auth(data));
+    check(res, { 'list 200': (r) => r.status === 200 });
+}
@@ -0,0 +1,35 @@
+package com.app.ExpenseTracker.config;
+
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed-size pools for the app's own background work. They follow
+ * {@code spring.threads.virtual.enabled} like Spring's request and task threads:
+ * with virtual threads on, the pool still caps concurrency but each worker is a
+ * virtual thread, so blocking on the database does not hold a carrier.
+ */
+public final class WorkerThreads {
+
+    private WorkerThreads() {
+    }
+
+    public static ExecutorService fixedPool(int size, String namePrefix, boolean virtual) {
+        return Executors.newFixedThreadPool(size, threadFactory(namePrefix, virtual));
+    }
+
+    private static ThreadFactory threadFactory(String namePrefix, boolean virtual) {
+        // only touched when enabled, so the app still starts on a JDK without virtual threads
+        if (virtual) return new VirtualThreadTaskExecutor(namePrefix).getVirtualThreadFactory();
+        AtomicInteger n = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, namePrefix + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -1,13 +1,18 @@
 package com.app.ExpenseTracker.controller;
 
 import com.app.ExpenseTracker.dto.AccountDTO;
+import com.app.ExpenseTracker.dto.BalanceDTO;
+import com.app.ExpenseTracker.dto.ReconciliationDTO;
 import com.app.ExpenseTracker.service.AccountService;
+import com.app.ExpenseTracker.security.AuthUser;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
 import java.util.List;
 
 @RestController
@@ -17,29 +22,43 @@ public class AccountController {
     @Autowired private AccountService accountService;
 
     @PostMapping
-    public ResponseEntity<AccountDTO> create(@Valid @RequestBody AccountDTO dto, Authentication auth) {
-        AccountDTO res = accountService.createAccount(auth.getName(), dto);
+    public ResponseEntity<AccountDTO> create(@Valid @RequestBody AccountDTO dto, @AuthenticationPrincipal AuthUser user) {
+        AccountDTO res = accountService.createAccount(user.getId(), dto);
         return ResponseEntity.ok(res);
     }
 
     @GetMapping
-    public ResponseEntity<List<AccountDTO>> list(Authentication auth) {
-        return ResponseEntity.ok(accountService.listAccounts(auth.getName()));
+    public ResponseEntity<List<AccountDTO>> list(@AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(accountService.listAccounts(user.getId()));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<AccountDTO> get(@PathVariable Long id, Authentication auth) {
-        return ResponseEntity.ok(accountService.getAccount(auth.getName(), id));
+    public ResponseEntity<AccountDTO> get(@PathVariable Long id, @AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(accountService.getAccount(user.getId(), id));
+    }
+
+    @GetMapping("/{id}/balance")
+    public ResponseEntity<BalanceDTO> balanceAt(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant at,
+            @AuthenticationPrincipal AuthUser user
+    ) {
+        return ResponseEntity.ok(accountService.getBalanceAt(user.getId(), id, at == null ? Instant.now() : at));
+    }
+
+    @GetMapping("/{id}/reconcile")
+    public ResponseEntity<ReconciliationDTO> reconcile(@PathVariable Long id, @AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(accountService.reconcile(user.getId(), id));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<AccountDTO> update(@PathVariable Long id, @Valid @RequestBody AccountDTO dto, Authentication auth) {
-        return ResponseEntity.ok(accountService.updateAccount(auth.getName(), id, dto));
+    public ResponseEntity<AccountDTO> update(@PathVariable Long id, @Valid @RequestBody AccountDTO dto, @AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(accountService.updateAccount(user.getId(), id, dto));
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(@PathVariable Long id, Authentication auth) {
-        accountService.deleteAccount(auth.getName(), id);
+    public ResponseEntity<Void> delete(@PathVariable Long id, @AuthenticationPrincipal AuthUser user) {
+        accountService.deleteAccount(user.getId(), id);
         return ResponseEntity.noContent().build();
     }
 }
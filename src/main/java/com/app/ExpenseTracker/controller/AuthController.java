@@ -3,7 +3,9 @@ package com.app.ExpenseTracker.controller;
 import com.app.ExpenseTracker.dto.*;
 import com.app.ExpenseTracker.entity.*;
 import com.app.ExpenseTracker.repository.*;
+import com.app.ExpenseTracker.security.AuthUser;
 import com.app.ExpenseTracker.security.JwtUtil;
+import com.auth0.jwt.exceptions.JWTVerificationException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.*;
@@ -28,6 +30,8 @@ public class AuthController {
     private JwtUtil jwtUtil;
     @Autowired
     private com.app.ExpenseTracker.service.TokenBlacklistService tokenBlacklistService;
+    @Autowired
+    private com.app.ExpenseTracker.service.RefreshTokenService refreshTokenService;
 
     @PostMapping("/register")
     public ResponseEntity<?> register(@RequestBody AuthRequest req) {
@@ -55,19 +59,45 @@ public class AuthController {
         try {
             Authentication auth = authManager.authenticate(
                     new UsernamePasswordAuthenticationToken(req.getEmail(), req.getPassword()));
-            var userDetails = (org.springframework.security.core.userdetails.User) auth.getPrincipal();
-            String token = jwtUtil.generateToken(userDetails);
-            return ResponseEntity.ok(new AuthResponse(token));
+            var userDetails = (AuthUser) auth.getPrincipal();
+            String token = jwtUtil.generateToken(userDetails.getId(), userDetails.getUsername());
+            String refreshToken = refreshTokenService.issue(userDetails.getId());
+            return ResponseEntity.ok(new AuthResponse(token, refreshToken));
         } catch (BadCredentialsException ex) {
             return ResponseEntity.status(401).body("Invalid credentials");
         }
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody RefreshRequest req) {
+        if (req.getRefreshToken() == null) {
+            return ResponseEntity.badRequest().body("refreshToken is required");
+        }
+        var grant = refreshTokenService.rotate(req.getRefreshToken());
+        if (grant.isEmpty()) {
+            return ResponseEntity.status(401).body("Invalid refresh token");
+        }
+        Optional<User> user = userRepository.findById(grant.get().getUserId());
+        if (user.isEmpty()) {
+            return ResponseEntity.status(401).body("Invalid refresh token");
+        }
+        String token = jwtUtil.generateToken(user.get().getId(), user.get().getEmail());
+        return ResponseEntity.ok(new AuthResponse(token, grant.get().getToken()));
+    }
+
     @PostMapping("/logout")
-    public ResponseEntity<?> logout(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> logout(@RequestHeader("Authorization") String authHeader,
+                                    @RequestBody(required = false) RefreshRequest req) {
+        if (req != null && req.getRefreshToken() != null) {
+            refreshTokenService.revoke(req.getRefreshToken());
+        }
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
-            tokenBlacklistService.revokeToken(token);
+            try {
+                tokenBlacklistService.revokeToken(jwtUtil.verify(token));
+            } catch (JWTVerificationException ex) {
+                // If token is invalid or expired, we don't need to blacklist it
+            }
             return ResponseEntity.ok("Logged out successfully");
         }
         return ResponseEntity.badRequest().body("Invalid token");
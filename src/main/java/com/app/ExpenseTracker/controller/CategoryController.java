@@ -1,9 +1,11 @@
 package com.app.ExpenseTracker.controller;
 
 import com.app.ExpenseTracker.dto.CategoryDTO;
+import com.app.ExpenseTracker.dto.CursorPage;
 import com.app.ExpenseTracker.dto.TransactionResponseDTO;
 import com.app.ExpenseTracker.service.CategoryService;
 import com.app.ExpenseTracker.service.TransactionService;
+import com.app.ExpenseTracker.security.AuthUser;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -11,7 +13,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -24,19 +26,19 @@ public class CategoryController {
     @Autowired private TransactionService transactionService;
 
     @PostMapping
-    public ResponseEntity<CategoryDTO> create(@Valid @RequestBody CategoryDTO dto, Authentication auth) {
-        CategoryDTO created = categoryService.createCategory(auth.getName(), dto);
+    public ResponseEntity<CategoryDTO> create(@Valid @RequestBody CategoryDTO dto, @AuthenticationPrincipal AuthUser user) {
+        CategoryDTO created = categoryService.createCategory(user.getId(), dto);
         return ResponseEntity.ok(created);
     }
 
     @GetMapping
-    public ResponseEntity<List<CategoryDTO>> list(Authentication auth) {
-        return ResponseEntity.ok(categoryService.listCategories(auth.getName()));
+    public ResponseEntity<List<CategoryDTO>> list(@AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(categoryService.listCategories(user.getId()));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<CategoryDTO> get(@PathVariable Long id, Authentication auth) {
-        return ResponseEntity.ok(categoryService.getCategory(auth.getName(), id));
+    public ResponseEntity<CategoryDTO> get(@PathVariable Long id, @AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(categoryService.getCategory(user.getId(), id));
     }
 
     @GetMapping("/{id}/transactions")
@@ -44,21 +46,34 @@ public class CategoryController {
             @PathVariable Long id,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
-            Authentication auth
+            @AuthenticationPrincipal AuthUser user
     ) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("txnDate").descending());
-        Page<TransactionResponseDTO> transactions = transactionService.listTransactionsByCategory(auth.getName(), id, pageable);
+        Page<TransactionResponseDTO> transactions = transactionService.listTransactionsByCategory(user.getId(), id, pageable);
         return ResponseEntity.ok(transactions);
     }
 
+    @GetMapping("/{id}/transactions/scroll")
+    public ResponseEntity<CursorPage<TransactionResponseDTO>> scrollTransactions(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal AuthUser user
+    ) {
+        if (size < 1 || size > TransactionController.MAX_SCROLL_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + TransactionController.MAX_SCROLL_SIZE);
+        }
+        return ResponseEntity.ok(transactionService.scrollTransactionsByCategory(user.getId(), id, cursor, size));
+    }
+
     @PutMapping("/{id}")
-    public ResponseEntity<CategoryDTO> update(@PathVariable Long id, @Valid @RequestBody CategoryDTO dto, Authentication auth) {
-        return ResponseEntity.ok(categoryService.updateCategory(auth.getName(), id, dto));
+    public ResponseEntity<CategoryDTO> update(@PathVariable Long id, @Valid @RequestBody CategoryDTO dto, @AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(categoryService.updateCategory(user.getId(), id, dto));
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(@PathVariable Long id, Authentication auth) {
-        categoryService.deleteCategory(auth.getName(), id);
+    public ResponseEntity<Void> delete(@PathVariable Long id, @AuthenticationPrincipal AuthUser user) {
+        categoryService.deleteCategory(user.getId(), id);
         return ResponseEntity.noContent().build();
     }
 }
@@ -2,12 +2,22 @@ package com.app.ExpenseTracker.controller;
 
 import com.app.ExpenseTracker.dto.IngestRequest;
 import com.app.ExpenseTracker.entity.*;
+import com.app.ExpenseTracker.ingest.BankMessageExtractor;
 import com.app.ExpenseTracker.repository.*;
+import com.app.ExpenseTracker.security.AuthUser;
+import com.app.ExpenseTracker.service.AccountResolver;
+import com.app.ExpenseTracker.service.IdempotencyService;
+import com.app.ExpenseTracker.service.IngestPipeline;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.Authentication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/ingest")
@@ -15,25 +25,77 @@ public class IngestController {
 
     @Autowired private UserRepository userRepository;
     @Autowired private ProposalRepository proposalRepository;
+    @Autowired private IdempotencyService idempotencyService;
+    @Autowired private IngestPipeline ingestPipeline;
+    @Autowired private BankMessageExtractor bankMessageExtractor;
+    @Autowired private AccountResolver accountResolver;
 
     @PostMapping
-    public Object ingest(@RequestBody IngestRequest req, Authentication authentication) {
-        // authenticated user
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email).orElseThrow();
+    public Object ingest(@RequestBody IngestRequest req,
+                         @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                         @AuthenticationPrincipal AuthUser user) {
+        return idempotencyService.execute(user.getId(), "POST /api/ingest", idempotencyKey, req, Object.class,
+                () -> createProposal(req, user.getId()));
+    }
+
+    /**
+     * Queues the message and answers 202 with the id the proposal will get once
+     * written, or 429 with Retry-After while the queue is full. The idempotency key
+     * and the 202 are committed as pending before the message is queued, and the
+     * writer completes the key when it inserts the proposal. A retry replays the
+     * first 202; one that finds the key still pending after the drain timeout
+     * queues the message again under the same proposal id. A 429 releases the key.
+     */
+    @PostMapping("/async")
+    @SuppressWarnings("unchecked")
+    public ResponseEntity<Map<String, Object>> ingestAsync(@RequestBody IngestRequest req,
+                                                           @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                                           @AuthenticationPrincipal AuthUser user) {
+        Map<String, Object> body = idempotencyService.executeQueued(user.getId(), "POST /api/ingest/async",
+                idempotencyKey, req, Map.class, ingestPipeline.drainTimeout(),
+                () -> {
+                    Long proposalId = ingestPipeline.prepare(req);
+                    Map<String, Object> queued = response(proposalId, req, user.getId());
+                    queued.put("status", "QUEUED");
+                    return queued;
+                },
+                (queued, keyHash) -> ingestPipeline.enqueue(((Number) queued.get("proposalId")).longValue(),
+                        user.getId(), req, keyHash));
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(body);
+    }
 
+    private Object createProposal(IngestRequest req, Long userId) {
+        bankMessageExtractor.fillMissing(req);
         Proposal p = new Proposal();
-        p.setUser(user);
+        p.setUser(userRepository.getReferenceById(userId));
         if (req.getAmount() != null) p.setAmount(req.getAmount());
         p.setCurrency(req.getCurrency());
         p.setMerchant(req.getMerchant());
         p.setAccountHint(req.getAccountHint());
         p.setParsedJson(req.getRawText());
+        if (req.getType() != null) p.setType(req.getType().toUpperCase(Locale.ROOT));
+        p.setTxnDate(req.getTxnDate());
         p.setStatus("PENDING");
         p.setCreatedAt(Instant.now());
         proposalRepository.save(p);
 
-        String display = String.format("Add ₹%s for %s ?", (req.getAmount()==null ? "0" : req.getAmount()), req.getMerchant());
-        return java.util.Map.of("proposalId", p.getId(), "displayText", display);
+        return response(p.getId(), req, userId);
+    }
+
+    /** The proposal id plus the account its hint resolves to, so clients can show how sure the match is. */
+    private Map<String, Object> response(Long proposalId, IngestRequest req, Long userId) {
+        AccountResolver.Match account = accountResolver.resolve(userId, req.getAccountHint());
+        // LinkedHashMap: accountId is null for users without accounts, which Map.of rejects
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("proposalId", proposalId);
+        body.put("displayText", displayText(req));
+        body.put("accountId", account.getAccountId());
+        body.put("accountMatch", account.getKind());
+        body.put("accountConfidence", account.getConfidence());
+        return body;
+    }
+
+    private static String displayText(IngestRequest req) {
+        return String.format("Add ₹%s for %s ?", (req.getAmount()==null ? "0" : req.getAmount()), req.getMerchant());
     }
 }
@@ -0,0 +1,44 @@
+package com.app.ExpenseTracker.controller;
+
+import com.app.ExpenseTracker.dto.TransactionResponseDTO;
+import com.app.ExpenseTracker.security.AuthUser;
+import com.app.ExpenseTracker.service.MerchantService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/merchants")
+public class MerchantController {
+
+    static final int MAX_SEARCH_LIMIT = 200;
+    static final int MAX_SUGGEST_LIMIT = 50;
+
+    @Autowired
+    private MerchantService merchantService;
+
+    /** Fuzzy merchant match ("amzn", "swigy"), transactions ranked by similarity. */
+    @GetMapping("/search")
+    public ResponseEntity<List<TransactionResponseDTO>> search(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "50") int limit,
+            @AuthenticationPrincipal AuthUser user
+    ) {
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) throw new IllegalArgumentException("limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        return ResponseEntity.ok(merchantService.searchTransactions(user.getId(), q, limit));
+    }
+
+    /** Prefix autocomplete over the user's distinct merchant names. */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<String>> suggest(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit,
+            @AuthenticationPrincipal AuthUser user
+    ) {
+        if (limit < 1 || limit > MAX_SUGGEST_LIMIT) throw new IllegalArgumentException("limit must be between 1 and " + MAX_SUGGEST_LIMIT);
+        return ResponseEntity.ok(merchantService.suggestMerchants(user.getId(), prefix, limit));
+    }
+}
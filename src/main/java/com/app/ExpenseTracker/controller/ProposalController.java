@@ -1,79 +1,55 @@
 package com.app.ExpenseTracker.controller;
 
+import com.app.ExpenseTracker.dto.ProposalBatchRequest;
+import com.app.ExpenseTracker.dto.ProposalBatchResultDTO;
 import com.app.ExpenseTracker.entity.*;
+import com.app.ExpenseTracker.exception.NotFoundException;
 import com.app.ExpenseTracker.repository.*;
+import com.app.ExpenseTracker.security.AuthUser;
+import com.app.ExpenseTracker.service.ProposalService;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.Authentication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
-import java.math.BigDecimal;
-import java.time.Instant;
 import java.util.*;
-import java.util.regex.*;
 
 @RestController
 @RequestMapping("/api/proposals")
 public class ProposalController {
 
-    @Autowired private UserRepository userRepository;
     @Autowired private ProposalRepository proposalRepository;
-    @Autowired private AccountRepository accountRepository;
-    @Autowired private TransactionRepository transactionRepository;
-    @Autowired private CategoryRepository categoryRepository;
+    @Autowired private ProposalService proposalService;
 
     @GetMapping
-    public List<Proposal> list(Authentication auth) {
-        User user = userRepository.findByEmail(auth.getName()).orElseThrow();
+    public List<Proposal> list(@AuthenticationPrincipal AuthUser user) {
         return proposalRepository.findByUserIdAndStatus(user.getId(), "PENDING");
     }
 
-    @PostMapping("/{id}/accept")
-    public Object accept(@PathVariable Long id, Authentication auth) {
-        User user = userRepository.findByEmail(auth.getName()).orElseThrow();
-        Proposal p = proposalRepository.findById(id).orElseThrow();
-        if (!p.getUser().getId().equals(user.getId())) return Map.of("error", "not yours");
-        if (!"PENDING".equals(p.getStatus())) return Map.of("error", "already handled");
-
-        // Try match account by digits in accountHint
-        Account matched = null;
-        String hint = p.getAccountHint() == null ? "" : p.getAccountHint();
-        // extract last 3-4 digits
-        Matcher m = Pattern.compile("(\\d{3,4})").matcher(hint);
-        if (m.find()) {
-            String digits = m.group(1);
-            Optional<Account> aOpt = accountRepository.findFirstByUserIdAndLast4(user.getId(), digits);
-            if (aOpt.isPresent()) matched = aOpt.get();
-        }
-        if (matched == null) {
-            Optional<Account> aOpt = accountRepository.findFirstByUserId(user.getId());
-            matched = aOpt.orElse(null);
-        }
-
-        TransactionEntity t = new TransactionEntity();
-        t.setUser(user);
-        t.setAccount(matched);
-        t.setMerchant(p.getMerchant());
-        t.setAmount(p.getAmount() == null ? BigDecimal.ZERO : p.getAmount());
-        t.setCurrency(p.getCurrency());
-        t.setType("DEBIT");
-
-        Category category = categoryRepository.findByNameAndUserId("Uncategorized", null).orElseThrow();
-        t.setCategory(category);
-        t.setSource("PROPOSAL");
-        t.setTxnDate(Instant.now());
-        transactionRepository.save(t);
+    @PostMapping("/accept")
+    public ResponseEntity<ProposalBatchResultDTO> acceptBatch(@Valid @RequestBody ProposalBatchRequest req, @AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(proposalService.acceptProposals(user.getId(), req.getIds()));
+    }
 
-        // Adjust account balance estimate (basic)
-        if (matched != null && t.getAmount() != null) {
-            var bal = matched.getBalanceEstimate() == null ? BigDecimal.ZERO : matched.getBalanceEstimate();
-            matched.setBalanceEstimate(bal.subtract(t.getAmount()));
-            accountRepository.save(matched);
-        }
+    @PostMapping("/reject")
+    public ResponseEntity<ProposalBatchResultDTO> rejectBatch(@Valid @RequestBody ProposalBatchRequest req, @AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(proposalService.rejectProposals(user.getId(), req.getIds()));
+    }
 
-        p.setStatus("ACCEPTED");
-        p.setRespondedAt(Instant.now());
-        proposalRepository.save(p);
+    /**
+     * Accepts one proposal through the same locked status flip as the batch, so two
+     * concurrent accepts of the same id cannot both create a transaction.
+     */
+    @PostMapping("/{id}/accept")
+    public Object accept(@PathVariable Long id, @AuthenticationPrincipal AuthUser user) {
+        ProposalBatchResultDTO result = proposalService.acceptProposals(user.getId(), List.of(id));
+        Long transactionId = result.getTransactions().get(id);
+        if (transactionId != null) return Map.of("transactionId", transactionId);
 
-        return Map.of("transactionId", t.getId());
+        // nothing was written; read the row only to say why
+        Proposal p = proposalRepository.findById(id).orElseThrow(() -> new NotFoundException("Proposal not found"));
+        if (!p.getUser().getId().equals(user.getId())) return Map.of("error", "not yours");
+        return Map.of("error", "already handled");
     }
 }
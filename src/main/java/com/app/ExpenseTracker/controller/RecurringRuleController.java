@@ -0,0 +1,45 @@
+package com.app.ExpenseTracker.controller;
+
+import com.app.ExpenseTracker.dto.RecurringRuleDTO;
+import com.app.ExpenseTracker.security.AuthUser;
+import com.app.ExpenseTracker.service.RecurringRuleService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/recurring")
+public class RecurringRuleController {
+
+    @Autowired private RecurringRuleService recurringRuleService;
+
+    @PostMapping
+    public ResponseEntity<RecurringRuleDTO> create(@Valid @RequestBody RecurringRuleDTO dto, @AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(recurringRuleService.createRule(user.getId(), dto));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<RecurringRuleDTO>> list(@AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(recurringRuleService.listRules(user.getId()));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<RecurringRuleDTO> get(@PathVariable Long id, @AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(recurringRuleService.getRule(user.getId(), id));
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<RecurringRuleDTO> update(@PathVariable Long id, @Valid @RequestBody RecurringRuleDTO dto, @AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(recurringRuleService.updateRule(user.getId(), id, dto));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@PathVariable Long id, @AuthenticationPrincipal AuthUser user) {
+        recurringRuleService.deleteRule(user.getId(), id);
+        return ResponseEntity.noContent().build();
+    }
+}
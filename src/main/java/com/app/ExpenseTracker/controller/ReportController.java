@@ -0,0 +1,35 @@
+package com.app.ExpenseTracker.controller;
+
+import com.app.ExpenseTracker.dto.RollupBucketDTO;
+import com.app.ExpenseTracker.security.AuthUser;
+import com.app.ExpenseTracker.service.SpendingRollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/reports")
+public class ReportController {
+
+    @Autowired private SpendingRollupService rollupService;
+
+    /**
+     * Monthly totals per category and type, read straight from the rollup table.
+     * {@code from}/{@code to} are inclusive months (yyyy-MM); defaults to the last 12 months.
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<List<RollupBucketDTO>> summary(
+            @RequestParam(required = false) YearMonth from,
+            @RequestParam(required = false) YearMonth to,
+            @AuthenticationPrincipal AuthUser user
+    ) {
+        YearMonth end = to == null ? YearMonth.now() : to;
+        YearMonth start = from == null ? end.minusMonths(11) : from;
+        if (start.isAfter(end)) throw new IllegalArgumentException("from must not be after to");
+        return ResponseEntity.ok(rollupService.summary(user.getId(), start, end));
+    }
+}
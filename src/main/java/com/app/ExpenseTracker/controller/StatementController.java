@@ -0,0 +1,54 @@
+package com.app.ExpenseTracker.controller;
+
+import com.app.ExpenseTracker.entity.StatementImport;
+import com.app.ExpenseTracker.security.AuthUser;
+import com.app.ExpenseTracker.service.StatementImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/statements")
+public class StatementController {
+
+    static final int MAX_LIST_SIZE = 100;
+
+    @Autowired private StatementImportService importService;
+
+    /**
+     * Uploads a CSV or OFX statement. The import runs in the background; poll
+     * {@code GET /api/statements/{id}} for its progress.
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<StatementImport> upload(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) Long accountId,
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) String dateFormat,
+            @AuthenticationPrincipal AuthUser user
+    ) throws IOException {
+        StatementImport imp = importService.submit(user.getId(), accountId, format, dateFormat, file);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(imp);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<StatementImport> get(@PathVariable Long id, @AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(importService.get(user.getId(), id));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<StatementImport>> list(
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal AuthUser user
+    ) {
+        if (size < 1 || size > MAX_LIST_SIZE) throw new IllegalArgumentException("size must be between 1 and " + MAX_LIST_SIZE);
+        return ResponseEntity.ok(importService.recent(user.getId(), size));
+    }
+}
@@ -1,30 +1,56 @@
 package com.app.ExpenseTracker.controller;
 
 import com.app.ExpenseTracker.dto.*;
+import com.app.ExpenseTracker.service.IdempotencyService;
+import com.app.ExpenseTracker.service.TransactionExportService;
 import com.app.ExpenseTracker.service.TransactionService;
+import com.app.ExpenseTracker.security.AuthUser;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/transactions")
 public class TransactionController {
 
+    static final int MAX_SCROLL_SIZE = 200;
+
     @Autowired
     private TransactionService transactionService;
 
+    @Autowired
+    private TransactionExportService exportService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
     @PostMapping
-    public ResponseEntity<TransactionResponseDTO> create(@Valid @RequestBody TransactionRequestDTO dto, Authentication auth) {
-        TransactionResponseDTO res = transactionService.createTransaction(auth.getName(), dto);
+    public ResponseEntity<TransactionResponseDTO> create(
+            @Valid @RequestBody TransactionRequestDTO dto,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @AuthenticationPrincipal AuthUser user
+    ) {
+        TransactionResponseDTO res = idempotencyService.execute(user.getId(), "POST /api/transactions", idempotencyKey,
+                dto, TransactionResponseDTO.class, () -> transactionService.createTransaction(user.getId(), dto));
         return ResponseEntity.ok(res);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<TransactionResponseDTO>> createBatch(@Valid @RequestBody TransactionBatchRequest req, @AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(transactionService.createTransactions(user.getId(), req.getTransactions()));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<TransactionResponseDTO> get(@PathVariable Long id, Authentication auth) {
-        TransactionResponseDTO res = transactionService.getTransaction(auth.getName(), id);
+    public ResponseEntity<TransactionResponseDTO> get(@PathVariable Long id, @AuthenticationPrincipal AuthUser user) {
+        TransactionResponseDTO res = transactionService.getTransaction(user.getId(), id);
         return ResponseEntity.ok(res);
     }
 
@@ -32,22 +58,79 @@ public class TransactionController {
     public ResponseEntity<Page<TransactionResponseDTO>> list(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
-            Authentication auth
+            @AuthenticationPrincipal AuthUser user
     ) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("txnDate").descending());
-        var res = transactionService.listTransactions(auth.getName(), pageable);
+        var res = transactionService.listTransactions(user.getId(), pageable);
         return ResponseEntity.ok(res);
     }
 
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<TransactionResponseDTO>> scroll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal AuthUser user
+    ) {
+        if (size < 1 || size > MAX_SCROLL_SIZE) throw new IllegalArgumentException("size must be between 1 and " + MAX_SCROLL_SIZE);
+        return ResponseEntity.ok(transactionService.scrollTransactions(user.getId(), cursor, size));
+    }
+
+    /**
+     * Filtered listing; any combination of the {@link TransactionSearchCriteria} query
+     * parameters, returned in keyset slices like {@code /scroll}.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<CursorPage<TransactionResponseDTO>> search(
+            TransactionSearchCriteria criteria,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal AuthUser user
+    ) {
+        if (size < 1 || size > MAX_SCROLL_SIZE) throw new IllegalArgumentException("size must be between 1 and " + MAX_SCROLL_SIZE);
+        return ResponseEntity.ok(transactionService.searchTransactions(user.getId(), criteria, cursor, size));
+    }
+
+    /**
+     * Full history (optionally filtered, e.g. by from/to) as CSV or NDJSON, oldest first,
+     * streamed while the rows are read.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            TransactionSearchCriteria criteria,
+            @RequestParam(defaultValue = "csv") String format,
+            @AuthenticationPrincipal AuthUser user
+    ) {
+        TransactionExportService.Format fmt = TransactionExportService.Format.parse(format);
+        Long userId = user.getId();
+        StreamingResponseBody body = out -> exportService.export(userId, criteria, fmt, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(fmt.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transactions." + fmt.getExtension() + "\"")
+                .body(body);
+    }
+
+    /**
+     * Moves every selected transaction (ids and/or filter) to {@code categoryId} in one statement.
+     */
+    @PostMapping("/bulk/recategorize")
+    public ResponseEntity<BulkResultDTO> recategorize(@Valid @RequestBody TransactionBulkRequest req, @AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(new BulkResultDTO(transactionService.recategorizeTransactions(user.getId(), req)));
+    }
+
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<BulkResultDTO> deleteBulk(@Valid @RequestBody TransactionBulkRequest req, @AuthenticationPrincipal AuthUser user) {
+        return ResponseEntity.ok(new BulkResultDTO(transactionService.deleteTransactions(user.getId(), req)));
+    }
+
     @PutMapping("/{id}")
-    public ResponseEntity<TransactionResponseDTO> update(@PathVariable Long id, @Valid @RequestBody TransactionRequestDTO dto, Authentication auth) {
-        TransactionResponseDTO res = transactionService.updateTransaction(auth.getName(), id, dto);
+    public ResponseEntity<TransactionResponseDTO> update(@PathVariable Long id, @Valid @RequestBody TransactionRequestDTO dto, @AuthenticationPrincipal AuthUser user) {
+        TransactionResponseDTO res = transactionService.updateTransaction(user.getId(), id, dto);
         return ResponseEntity.ok(res);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(@PathVariable Long id, Authentication auth) {
-        transactionService.deleteTransaction(auth.getName(), id);
+    public ResponseEntity<Void> delete(@PathVariable Long id, @AuthenticationPrincipal AuthUser user) {
+        transactionService.deleteTransaction(user.getId(), id);
         return ResponseEntity.noContent().build();
     }
 }
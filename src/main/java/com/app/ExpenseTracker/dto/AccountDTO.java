@@ -2,6 +2,7 @@ package com.app.ExpenseTracker.dto;
 
 import jakarta.validation.constraints.*;
 import java.math.BigDecimal;
+import java.util.List;
 
 public class AccountDTO {
     private Long id;
@@ -14,6 +15,9 @@ public class AccountDTO {
     @Size(max = 10)
     private String last4;
 
+    @Size(max = 20)
+    private List<@NotBlank @Size(max = 100) String> aliases; // other card digits / UPI handles of this account
+
     private BigDecimal balanceEstimate;
 
     // getters/setters
@@ -25,6 +29,8 @@ public class AccountDTO {
     public void setType(String type) { this.type = type; }
     public String getLast4() { return last4; }
     public void setLast4(String last4) { this.last4 = last4; }
+    public List<String> getAliases() { return aliases; }
+    public void setAliases(List<String> aliases) { this.aliases = aliases; }
     public BigDecimal getBalanceEstimate() { return balanceEstimate; }
     public void setBalanceEstimate(BigDecimal balanceEstimate) { this.balanceEstimate = balanceEstimate; }
 }
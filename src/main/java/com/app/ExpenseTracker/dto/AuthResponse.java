@@ -2,8 +2,15 @@ package com.app.ExpenseTracker.dto;
 
 public class AuthResponse {
     private String token;
+    private String refreshToken;
     public AuthResponse() {}
     public AuthResponse(String token) { this.token = token; }
+    public AuthResponse(String token, String refreshToken) {
+        this.token = token;
+        this.refreshToken = refreshToken;
+    }
     public String getToken() { return token; }
     public void setToken(String token) { this.token = token; }
+    public String getRefreshToken() { return refreshToken; }
+    public void setRefreshToken(String refreshToken) { this.refreshToken = refreshToken; }
 }
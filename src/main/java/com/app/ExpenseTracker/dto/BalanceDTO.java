@@ -0,0 +1,26 @@
+package com.app.ExpenseTracker.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public class BalanceDTO {
+    private Long accountId;
+    private Instant at;
+    private BigDecimal balance;
+
+    public BalanceDTO() {}
+
+    public BalanceDTO(Long accountId, Instant at, BigDecimal balance) {
+        this.accountId = accountId;
+        this.at = at;
+        this.balance = balance;
+    }
+
+    // getters/setters
+    public Long getAccountId() { return accountId; }
+    public void setAccountId(Long accountId) { this.accountId = accountId; }
+    public Instant getAt() { return at; }
+    public void setAt(Instant at) { this.at = at; }
+    public BigDecimal getBalance() { return balance; }
+    public void setBalance(BigDecimal balance) { this.balance = balance; }
+}
@@ -0,0 +1,15 @@
+package com.app.ExpenseTracker.dto;
+
+public class BulkResultDTO {
+    private int affected;
+
+    public BulkResultDTO() {}
+
+    public BulkResultDTO(int affected) {
+        this.affected = affected;
+    }
+
+    // getters/setters
+    public int getAffected() { return affected; }
+    public void setAffected(int affected) { this.affected = affected; }
+}
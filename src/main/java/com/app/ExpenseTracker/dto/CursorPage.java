@@ -0,0 +1,25 @@
+package com.app.ExpenseTracker.dto;
+
+import java.util.List;
+
+/**
+ * One slice of a keyset-paginated listing. {@code nextCursor} is opaque to
+ * clients and is null on the last slice; no total count is computed.
+ */
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+
+    public CursorPage() {}
+
+    public CursorPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // getters/setters
+    public List<T> getItems() { return items; }
+    public void setItems(List<T> items) { this.items = items; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -1,6 +1,7 @@
 package com.app.ExpenseTracker.dto;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 
 public class IngestRequest {
     private BigDecimal amount;
@@ -8,7 +9,9 @@ public class IngestRequest {
     private String merchant;
     private String accountHint;
     private String rawText;
-    private String source;
+    private String source; // SMS sender id or mailbox the message came from
+    private String type; // DEBIT / CREDIT
+    private LocalDate txnDate;
 
     // getters / setters
     public BigDecimal getAmount() { return amount; }
@@ -23,4 +26,8 @@ public class IngestRequest {
     public void setRawText(String rawText) { this.rawText = rawText; }
     public String getSource() { return source; }
     public void setSource(String source) { this.source = source; }
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    public LocalDate getTxnDate() { return txnDate; }
+    public void setTxnDate(LocalDate txnDate) { this.txnDate = txnDate; }
 }
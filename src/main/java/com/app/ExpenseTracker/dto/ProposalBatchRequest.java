@@ -0,0 +1,18 @@
+package com.app.ExpenseTracker.dto;
+
+import jakarta.validation.constraints.*;
+import java.util.List;
+
+/** Pending proposals to accept or reject in one go. */
+public class ProposalBatchRequest {
+
+    public static final int MAX_IDS = 1000;
+
+    @NotEmpty(message = "ids is required")
+    @Size(max = MAX_IDS, message = "at most " + MAX_IDS + " ids per request")
+    private List<@NotNull Long> ids;
+
+    // getters/setters
+    public List<Long> getIds() { return ids; }
+    public void setIds(List<Long> ids) { this.ids = ids; }
+}
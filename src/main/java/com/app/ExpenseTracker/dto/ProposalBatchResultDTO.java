@@ -0,0 +1,31 @@
+package com.app.ExpenseTracker.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of a batch accept/reject. {@code skipped} lists requested ids that were
+ * not the user's or no longer pending; {@code transactions} maps each accepted
+ * proposal to the transaction created for it.
+ */
+public class ProposalBatchResultDTO {
+    private int affected;
+    private List<Long> skipped;
+    private Map<Long, Long> transactions;
+
+    public ProposalBatchResultDTO() {}
+
+    public ProposalBatchResultDTO(int affected, List<Long> skipped, Map<Long, Long> transactions) {
+        this.affected = affected;
+        this.skipped = skipped;
+        this.transactions = transactions;
+    }
+
+    // getters/setters
+    public int getAffected() { return affected; }
+    public void setAffected(int affected) { this.affected = affected; }
+    public List<Long> getSkipped() { return skipped; }
+    public void setSkipped(List<Long> skipped) { this.skipped = skipped; }
+    public Map<Long, Long> getTransactions() { return transactions; }
+    public void setTransactions(Map<Long, Long> transactions) { this.transactions = transactions; }
+}
@@ -0,0 +1,29 @@
+package com.app.ExpenseTracker.dto;
+
+import java.math.BigDecimal;
+
+public class ReconciliationDTO {
+    private Long accountId;
+    private BigDecimal balanceEstimate;
+    private BigDecimal ledgerBalance;
+    private BigDecimal drift;
+
+    public ReconciliationDTO() {}
+
+    public ReconciliationDTO(Long accountId, BigDecimal balanceEstimate, BigDecimal ledgerBalance) {
+        this.accountId = accountId;
+        this.balanceEstimate = balanceEstimate;
+        this.ledgerBalance = ledgerBalance;
+        this.drift = balanceEstimate.subtract(ledgerBalance);
+    }
+
+    // getters/setters
+    public Long getAccountId() { return accountId; }
+    public void setAccountId(Long accountId) { this.accountId = accountId; }
+    public BigDecimal getBalanceEstimate() { return balanceEstimate; }
+    public void setBalanceEstimate(BigDecimal balanceEstimate) { this.balanceEstimate = balanceEstimate; }
+    public BigDecimal getLedgerBalance() { return ledgerBalance; }
+    public void setLedgerBalance(BigDecimal ledgerBalance) { this.ledgerBalance = ledgerBalance; }
+    public BigDecimal getDrift() { return drift; }
+    public void setDrift(BigDecimal drift) { this.drift = drift; }
+}
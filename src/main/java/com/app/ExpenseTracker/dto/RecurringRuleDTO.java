@@ -0,0 +1,64 @@
+package com.app.ExpenseTracker.dto;
+
+import jakarta.validation.constraints.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class RecurringRuleDTO {
+    private Long id;
+
+    @NotNull(message = "amount is required")
+    @DecimalMin(value = "0.01", inclusive = true, message = "amount must be positive")
+    private BigDecimal amount;
+
+    @NotBlank(message = "merchant is required")
+    @Size(max = 255)
+    private String merchant;
+
+    @Size(max = 10)
+    private String currency = "INR";
+
+    private Long accountId; // optional; if null backend picks default
+
+    private Long categoryId; // optional; if null backend picks default
+
+    @Size(max = 255)
+    private String type = "DEBIT";
+
+    // e.g. "0 0 9 1 * *" (09:00 on the 1st) or "@monthly"
+    @NotBlank(message = "cadence is required")
+    @Size(max = 100)
+    private String cadence;
+
+    private LocalDateTime startAt; // first occurrence is the first cadence time at or after this; default now
+    private LocalDateTime endAt;   // optional; no occurrences after this
+
+    private Boolean active;
+    private LocalDateTime nextRunAt; // response only
+
+    // getters/setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+    public String getMerchant() { return merchant; }
+    public void setMerchant(String merchant) { this.merchant = merchant; }
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+    public Long getAccountId() { return accountId; }
+    public void setAccountId(Long accountId) { this.accountId = accountId; }
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    public String getCadence() { return cadence; }
+    public void setCadence(String cadence) { this.cadence = cadence; }
+    public LocalDateTime getStartAt() { return startAt; }
+    public void setStartAt(LocalDateTime startAt) { this.startAt = startAt; }
+    public LocalDateTime getEndAt() { return endAt; }
+    public void setEndAt(LocalDateTime endAt) { this.endAt = endAt; }
+    public Boolean getActive() { return active; }
+    public void setActive(Boolean active) { this.active = active; }
+    public LocalDateTime getNextRunAt() { return nextRunAt; }
+    public void setNextRunAt(LocalDateTime nextRunAt) { this.nextRunAt = nextRunAt; }
+}
@@ -0,0 +1,8 @@
+package com.app.ExpenseTracker.dto;
+
+public class RefreshRequest {
+    private String refreshToken;
+    // getters/setters
+    public String getRefreshToken() { return refreshToken; }
+    public void setRefreshToken(String refreshToken) { this.refreshToken = refreshToken; }
+}
@@ -0,0 +1,26 @@
+package com.app.ExpenseTracker.dto;
+
+import java.math.BigDecimal;
+
+public class RollupBucketDTO {
+    private String month; // yyyy-MM
+    private Long categoryId;
+    private String categoryName;
+    private String type;
+    private BigDecimal total;
+    private Long count;
+
+    // getters/setters
+    public String getMonth() { return month; }
+    public void setMonth(String month) { this.month = month; }
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+    public String getCategoryName() { return categoryName; }
+    public void setCategoryName(String categoryName) { this.categoryName = categoryName; }
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    public BigDecimal getTotal() { return total; }
+    public void setTotal(BigDecimal total) { this.total = total; }
+    public Long getCount() { return count; }
+    public void setCount(Long count) { this.count = count; }
+}
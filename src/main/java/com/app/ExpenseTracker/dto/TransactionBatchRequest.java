@@ -0,0 +1,18 @@
+package com.app.ExpenseTracker.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import java.util.List;
+
+public class TransactionBatchRequest {
+
+    public static final int MAX_SIZE = 5000;
+
+    @NotEmpty(message = "transactions are required")
+    @Size(max = MAX_SIZE, message = "at most " + MAX_SIZE + " transactions per batch")
+    private List<@Valid TransactionRequestDTO> transactions;
+
+    // getters/setters
+    public List<TransactionRequestDTO> getTransactions() { return transactions; }
+    public void setTransactions(List<TransactionRequestDTO> transactions) { this.transactions = transactions; }
+}
@@ -0,0 +1,28 @@
+package com.app.ExpenseTracker.dto;
+
+import jakarta.validation.constraints.*;
+import java.util.List;
+
+/**
+ * Selects transactions for a bulk change, by explicit ids, by filter, or both
+ * (rows must then match both). {@code categoryId} is the target of a recategorize.
+ */
+public class TransactionBulkRequest {
+
+    public static final int MAX_IDS = 5000;
+
+    @Size(max = MAX_IDS, message = "at most " + MAX_IDS + " ids per request")
+    private List<@NotNull Long> ids;
+
+    private TransactionSearchCriteria filter;
+
+    private Long categoryId;
+
+    // getters/setters
+    public List<Long> getIds() { return ids; }
+    public void setIds(List<Long> ids) { this.ids = ids; }
+    public TransactionSearchCriteria getFilter() { return filter; }
+    public void setFilter(TransactionSearchCriteria filter) { this.filter = filter; }
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+}
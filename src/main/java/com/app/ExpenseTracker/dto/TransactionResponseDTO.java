@@ -15,6 +15,23 @@ public class TransactionResponseDTO {
     private String source;
     private Instant txnDate;
 
+    public TransactionResponseDTO() {}
+
+    // used by JPQL constructor projections
+    public TransactionResponseDTO(Long id, Long accountId, String merchant, BigDecimal amount, String currency,
+                                  String type, Long categoryId, String categoryName, String source, Instant txnDate) {
+        this.id = id;
+        this.accountId = accountId;
+        this.merchant = merchant;
+        this.amount = amount;
+        this.currency = currency;
+        this.type = type;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.source = source;
+        this.txnDate = txnDate;
+    }
+
     // getters/setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -0,0 +1,51 @@
+package com.app.ExpenseTracker.dto;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Optional filters for transaction search/export. Every field left null is ignored;
+ * {@code from}/{@code to} are inclusive calendar days.
+ */
+public class TransactionSearchCriteria {
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+    private Long accountId;
+    private Long categoryId;
+    private String type;
+    private String merchant; // case-insensitive substring
+    private Boolean uncategorized; // true: only rows whose category was deleted
+
+    // getters/setters
+    public LocalDate getFrom() { return from; }
+    public void setFrom(LocalDate from) { this.from = from; }
+    public LocalDate getTo() { return to; }
+    public void setTo(LocalDate to) { this.to = to; }
+    public BigDecimal getMinAmount() { return minAmount; }
+    public void setMinAmount(BigDecimal minAmount) { this.minAmount = minAmount; }
+    public BigDecimal getMaxAmount() { return maxAmount; }
+    public void setMaxAmount(BigDecimal maxAmount) { this.maxAmount = maxAmount; }
+    public Long getAccountId() { return accountId; }
+    public void setAccountId(Long accountId) { this.accountId = accountId; }
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    public String getMerchant() { return merchant; }
+    public void setMerchant(String merchant) { this.merchant = merchant; }
+    public Boolean getUncategorized() { return uncategorized; }
+    public void setUncategorized(Boolean uncategorized) { this.uncategorized = uncategorized; }
+
+    /** True when no filter is set, i.e. the criteria match every row of the user. */
+    public boolean hasNoFilters() {
+        return from == null && to == null && minAmount == null && maxAmount == null && accountId == null
+                && categoryId == null && (type == null || type.isBlank())
+                && (merchant == null || merchant.isBlank()) && !Boolean.TRUE.equals(uncategorized);
+    }
+}
@@ -1,6 +1,9 @@
 package com.app.ExpenseTracker.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
 import java.math.BigDecimal;
 import java.time.Instant;
 
@@ -18,6 +21,11 @@ public class Account {
     private String type;
     private String last4;
 
+    // card digits or UPI handles that also identify this account
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(columnDefinition = "text[]")
+    private String[] aliases;
+
     @Column(name = "balance_estimate", precision = 18, scale = 2)
     private BigDecimal balanceEstimate = BigDecimal.ZERO;
 
@@ -35,6 +43,8 @@ public class Account {
     public void setType(String type) { this.type = type; }
     public String getLast4() { return last4; }
     public void setLast4(String last4) { this.last4 = last4; }
+    public String[] getAliases() { return aliases; }
+    public void setAliases(String[] aliases) { this.aliases = aliases; }
     public BigDecimal getBalanceEstimate() { return balanceEstimate; }
     public void setBalanceEstimate(BigDecimal balanceEstimate) { this.balanceEstimate = balanceEstimate; }
     public Instant getCreatedAt() { return createdAt; }
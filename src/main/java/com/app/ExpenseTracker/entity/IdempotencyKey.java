@@ -0,0 +1,53 @@
+package com.app.ExpenseTracker.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "idempotency_keys")
+public class IdempotencyKey {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // SHA-256 of the endpoint and the client's Idempotency-Key
+    @Column(name = "key_hash", nullable = false, length = 32)
+    private byte[] keyHash;
+
+    // SHA-256 of the request body, to reject a key reused for a different request
+    @Column(name = "request_hash", nullable = false, length = 32)
+    private byte[] requestHash;
+
+    @Column(name = "response_body", columnDefinition = "text")
+    private String responseBody;
+
+    // the response is stored but the queued work it describes is not written yet
+    @Column(name = "pending", nullable = false)
+    private boolean pending;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // getters / setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public byte[] getKeyHash() { return keyHash; }
+    public void setKeyHash(byte[] keyHash) { this.keyHash = keyHash; }
+    public byte[] getRequestHash() { return requestHash; }
+    public void setRequestHash(byte[] requestHash) { this.requestHash = requestHash; }
+    public String getResponseBody() { return responseBody; }
+    public void setResponseBody(String responseBody) { this.responseBody = responseBody; }
+    public boolean isPending() { return pending; }
+    public void setPending(boolean pending) { this.pending = pending; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+}
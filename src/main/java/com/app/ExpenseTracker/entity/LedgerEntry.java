@@ -0,0 +1,66 @@
+package com.app.ExpenseTracker.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Immutable signed movement on an account. Rows are only ever inserted;
+ * corrections are booked as new entries. {@code effectiveAt} is when the money
+ * moved (the transaction's date) and drives point-in-time balances;
+ * {@code recordedAt} is when the entry was written.
+ */
+@Entity
+@Table(name = "ledger_entries")
+public class LedgerEntry {
+    public static final String OPENING = "OPENING";
+    public static final String ADJUSTMENT = "ADJUSTMENT";
+    public static final String TXN = "TXN";
+    public static final String REVERSAL = "REVERSAL";
+    public static final String BATCH = "BATCH";
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false, updatable = false)
+    private Long accountId;
+
+    @Column(name = "transaction_id", updatable = false)
+    private Long transactionId;
+
+    @Column(name = "entry_type", nullable = false, updatable = false)
+    private String entryType;
+
+    @Column(nullable = false, updatable = false, precision = 18, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "recorded_at", nullable = false, updatable = false)
+    private Instant recordedAt = Instant.now();
+
+    @Column(name = "effective_at", nullable = false, updatable = false)
+    private Instant effectiveAt;
+
+    public LedgerEntry() {}
+
+    public LedgerEntry(Long accountId, Long transactionId, String entryType, BigDecimal amount) {
+        this(accountId, transactionId, entryType, amount, null);
+    }
+
+    /** @param effectiveAt when the money moved; null for "now" */
+    public LedgerEntry(Long accountId, Long transactionId, String entryType, BigDecimal amount, Instant effectiveAt) {
+        this.accountId = accountId;
+        this.transactionId = transactionId;
+        this.entryType = entryType;
+        this.amount = amount;
+        this.effectiveAt = effectiveAt == null ? recordedAt : effectiveAt;
+    }
+
+    // getters
+    public Long getId() { return id; }
+    public Long getAccountId() { return accountId; }
+    public Long getTransactionId() { return transactionId; }
+    public String getEntryType() { return entryType; }
+    public BigDecimal getAmount() { return amount; }
+    public Instant getRecordedAt() { return recordedAt; }
+    public Instant getEffectiveAt() { return effectiveAt; }
+}
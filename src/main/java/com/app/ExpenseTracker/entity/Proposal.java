@@ -3,6 +3,7 @@ package com.app.ExpenseTracker.entity;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.LocalDate;
 
 @Entity
 @Table(name = "proposals")
@@ -26,6 +27,11 @@ public class Proposal {
     @Column(name = "parsed_json", columnDefinition = "text")
     private String parsedJson;
 
+    private String type; // DEBIT / CREDIT, when known
+
+    @Column(name = "txn_date")
+    private LocalDate txnDate;
+
     private String status = "PENDING";
 
     @Column(name = "created_at")
@@ -49,6 +55,10 @@ public class Proposal {
     public void setAccountHint(String accountHint) { this.accountHint = accountHint; }
     public String getParsedJson() { return parsedJson; }
     public void setParsedJson(String parsedJson) { this.parsedJson = parsedJson; }
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    public LocalDate getTxnDate() { return txnDate; }
+    public void setTxnDate(LocalDate txnDate) { this.txnDate = txnDate; }
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
     public Instant getCreatedAt() { return createdAt; }
@@ -0,0 +1,80 @@
+package com.app.ExpenseTracker.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * A transaction that repeats on a cron cadence. {@code nextRunAt} is the next
+ * occurrence not yet materialized, in local wall-clock time like {@code txn_date}.
+ */
+@Entity
+@Table(name = "recurring_rules")
+public class RecurringRule {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "account_id")
+    private Long accountId;
+
+    @Column(name = "category_id")
+    private Long categoryId;
+
+    @Column(nullable = false)
+    private String merchant;
+
+    @Column(nullable = false, precision = 18, scale = 2)
+    private BigDecimal amount;
+
+    private String currency;
+
+    @Column(nullable = false)
+    private String type; // DEBIT / CREDIT
+
+    @Column(nullable = false)
+    private String cadence;
+
+    @Column(name = "next_run_at", nullable = false)
+    private LocalDateTime nextRunAt;
+
+    @Column(name = "end_at")
+    private LocalDateTime endAt;
+
+    @Column(nullable = false)
+    private boolean active = true;
+
+    @Column(name = "created_at")
+    private Instant createdAt = Instant.now();
+
+    // getters / setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public Long getAccountId() { return accountId; }
+    public void setAccountId(Long accountId) { this.accountId = accountId; }
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+    public String getMerchant() { return merchant; }
+    public void setMerchant(String merchant) { this.merchant = merchant; }
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    public String getCadence() { return cadence; }
+    public void setCadence(String cadence) { this.cadence = cadence; }
+    public LocalDateTime getNextRunAt() { return nextRunAt; }
+    public void setNextRunAt(LocalDateTime nextRunAt) { this.nextRunAt = nextRunAt; }
+    public LocalDateTime getEndAt() { return endAt; }
+    public void setEndAt(LocalDateTime endAt) { this.endAt = endAt; }
+    public boolean isActive() { return active; }
+    public void setActive(boolean active) { this.active = active; }
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+}
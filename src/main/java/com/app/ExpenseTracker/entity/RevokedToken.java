@@ -10,8 +10,9 @@ public class RevokedToken {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, unique = true, length = 1024)
-    private String token;
+    // SHA-256 of the raw JWT, see TokenDigests
+    @Column(name = "token_hash", nullable = false, unique = true, length = 32)
+    private byte[] tokenHash;
 
     @Column(name = "revoked_at", nullable = false)
     private LocalDateTime revokedAt;
@@ -22,8 +23,8 @@ public class RevokedToken {
     public RevokedToken() {
     }
 
-    public RevokedToken(String token, LocalDateTime expiresAt) {
-        this.token = token;
+    public RevokedToken(byte[] tokenHash, LocalDateTime expiresAt) {
+        this.tokenHash = tokenHash;
         this.revokedAt = LocalDateTime.now();
         this.expiresAt = expiresAt;
     }
@@ -36,12 +37,12 @@ public class RevokedToken {
         this.id = id;
     }
 
-    public String getToken() {
-        return token;
+    public byte[] getTokenHash() {
+        return tokenHash;
     }
 
-    public void setToken(String token) {
-        this.token = token;
+    public void setTokenHash(byte[] tokenHash) {
+        this.tokenHash = tokenHash;
     }
 
     public LocalDateTime getRevokedAt() {
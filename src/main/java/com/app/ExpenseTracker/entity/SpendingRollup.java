@@ -0,0 +1,83 @@
+package com.app.ExpenseTracker.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+@Entity
+@Table(name = "spending_rollups")
+@IdClass(SpendingRollup.Key.class)
+public class SpendingRollup {
+    // category id used for rows without a category
+    public static final long NO_CATEGORY = 0L;
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    private LocalDate month;
+
+    @Id
+    @Column(name = "category_id")
+    private Long categoryId;
+
+    @Id
+    private String type;
+
+    @Column(precision = 18, scale = 2)
+    private BigDecimal total;
+
+    @Column(name = "txn_count")
+    private Long txnCount;
+
+    // getters/setters
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public LocalDate getMonth() { return month; }
+    public void setMonth(LocalDate month) { this.month = month; }
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    public BigDecimal getTotal() { return total; }
+    public void setTotal(BigDecimal total) { this.total = total; }
+    public Long getTxnCount() { return txnCount; }
+    public void setTxnCount(Long txnCount) { this.txnCount = txnCount; }
+
+    public static class Key implements Serializable {
+        private Long userId;
+        private LocalDate month;
+        private Long categoryId;
+        private String type;
+
+        public Key() {}
+
+        public Key(Long userId, LocalDate month, Long categoryId, String type) {
+            this.userId = userId;
+            this.month = month;
+            this.categoryId = categoryId;
+            this.type = type;
+        }
+
+        public Long getUserId() { return userId; }
+        public LocalDate getMonth() { return month; }
+        public Long getCategoryId() { return categoryId; }
+        public String getType() { return type; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key k)) return false;
+            return Objects.equals(userId, k.userId) && Objects.equals(month, k.month)
+                    && Objects.equals(categoryId, k.categoryId) && Objects.equals(type, k.type);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, month, categoryId, type);
+        }
+    }
+}
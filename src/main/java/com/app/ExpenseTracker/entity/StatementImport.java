@@ -0,0 +1,89 @@
+package com.app.ExpenseTracker.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * One uploaded bank statement and how far its import got. The counters are
+ * written while the file is processed, so clients can poll for progress.
+ */
+@Entity
+@Table(name = "statement_imports")
+public class StatementImport {
+    public static final String PENDING = "PENDING";
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "account_id")
+    private Long accountId;
+
+    private String filename;
+
+    @Column(nullable = false)
+    private String format; // CSV / OFX
+
+    @Column(nullable = false)
+    private String status = PENDING;
+
+    @Column(name = "rows_read")
+    private long rowsRead;
+
+    @Column(name = "rows_inserted")
+    private long rowsInserted;
+
+    @Column(name = "rows_duplicate")
+    private long rowsDuplicate;
+
+    @Column(name = "rows_skipped")
+    private long rowsSkipped;
+
+    @Column(columnDefinition = "text")
+    private String error;
+
+    @Column(name = "created_at")
+    private Instant createdAt = Instant.now();
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    // last time the instance working on it said so; stale while PENDING/RUNNING means it died
+    @Column(name = "heartbeat_at")
+    private Instant heartbeatAt = Instant.now();
+
+    // getters / setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public Long getAccountId() { return accountId; }
+    public void setAccountId(Long accountId) { this.accountId = accountId; }
+    public String getFilename() { return filename; }
+    public void setFilename(String filename) { this.filename = filename; }
+    public String getFormat() { return format; }
+    public void setFormat(String format) { this.format = format; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public long getRowsRead() { return rowsRead; }
+    public void setRowsRead(long rowsRead) { this.rowsRead = rowsRead; }
+    public long getRowsInserted() { return rowsInserted; }
+    public void setRowsInserted(long rowsInserted) { this.rowsInserted = rowsInserted; }
+    public long getRowsDuplicate() { return rowsDuplicate; }
+    public void setRowsDuplicate(long rowsDuplicate) { this.rowsDuplicate = rowsDuplicate; }
+    public long getRowsSkipped() { return rowsSkipped; }
+    public void setRowsSkipped(long rowsSkipped) { this.rowsSkipped = rowsSkipped; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+    public Instant getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(Instant finishedAt) { this.finishedAt = finishedAt; }
+    public Instant getHeartbeatAt() { return heartbeatAt; }
+    public void setHeartbeatAt(Instant heartbeatAt) { this.heartbeatAt = heartbeatAt; }
+}
@@ -7,10 +7,14 @@ import java.time.Instant;
 @Entity
 @Table(name = "transactions")
 public class TransactionEntity {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // pooled sequence (see V7) instead of IDENTITY so Hibernate can batch inserts
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_id_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne(optional = false)
+    // only the id is ever read; a lazy proxy answers getId() without loading the user row
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
@@ -25,7 +29,7 @@ public class TransactionEntity {
 
     private String currency;
 
-    @Column(name = "txn_date")
+    @Column(name = "txn_date", nullable = false)
     private Instant txnDate = Instant.now();
 
     private String type; // DEBIT / CREDIT
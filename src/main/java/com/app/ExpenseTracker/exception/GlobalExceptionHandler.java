@@ -1,5 +1,6 @@
 package com.app.ExpenseTracker.exception;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -20,6 +21,21 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(err, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(QueueFullException.class)
+    public ResponseEntity<ApiError> handleQueueFull(QueueFullException ex) {
+        ApiError err = new ApiError("Too many requests", List.of(ex.getMessage()));
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(err);
+    }
+
+    // e.g. a write naming a row another instance deleted meanwhile; retrying sees the deletion
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ApiError> handleConflict(DataIntegrityViolationException ex) {
+        ApiError err = new ApiError("Conflict", List.of("The request conflicts with the current data"));
+        return new ResponseEntity<>(err, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiError> handleAll(Exception ex) {
         ApiError err = new ApiError("Internal error", List.of(ex.getMessage()));
@@ -0,0 +1,15 @@
+package com.app.ExpenseTracker.exception;
+
+/** Thrown when a bounded work queue is full; answered with 429 and Retry-After. */
+public class QueueFullException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public QueueFullException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
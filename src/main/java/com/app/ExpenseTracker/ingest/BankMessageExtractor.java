@@ -0,0 +1,160 @@
+package com.app.ExpenseTracker.ingest;
+
+import com.app.ExpenseTracker.dto.IngestRequest;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ingest-side entry to bank message parsing. Each message is reduced to its
+ * {@link MessageFingerprint}, and a bounded LRU cache maps fingerprints to the
+ * {@link ExtractionPlan} that parsed the first message of that layout, or to "no
+ * plan" when nothing could. Repeat layouts run one template instead of the full
+ * alternation. A "no plan" entry only spares the {@link FallbackMessageParser},
+ * if any: the built-in templates are still tried, because a message of a
+ * parseable layout may share the fingerprint, and the entry expires after
+ * {@code ingest.parse-cache.negative-ttl} so the fallback gets another chance.
+ * Hits and misses are counted per sender.
+ */
+@Component
+public class BankMessageExtractor {
+
+    private static final Logger log = LoggerFactory.getLogger(BankMessageExtractor.class);
+
+    static final String OTHER_SENDER = "other";
+    static final String UNKNOWN_SENDER = "unknown";
+    static final int MAX_SENDER_LENGTH = 64;
+
+    private final BankMessageParser parser;
+    private final FallbackMessageParser fallback;
+    private final Cache<String, Optional<ExtractionPlan>> plans;
+    private final MeterRegistry meterRegistry;
+    private final int maxSenders;
+    // sender -> {hits, misses}; bounded so client-supplied senders cannot blow up metric cardinality
+    private final Map<String, Counter[]> senderCounters = new ConcurrentHashMap<>();
+
+    public BankMessageExtractor(BankMessageParser parser, Optional<FallbackMessageParser> fallback,
+                                MeterRegistry meterRegistry,
+                                @Value("${ingest.parse-cache.max-size:10000}") long maxSize,
+                                @Value("${ingest.parse-cache.max-senders:200}") int maxSenders,
+                                @Value("${ingest.parse-cache.negative-ttl:10m}") Duration negativeTtl) {
+        this.parser = parser;
+        this.fallback = fallback.orElse(null);
+        this.meterRegistry = meterRegistry;
+        this.maxSenders = maxSenders;
+        long negativeNanos = negativeTtl.toNanos();
+        this.plans = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Optional<ExtractionPlan>>() {
+                    @Override
+                    public long expireAfterCreate(String key, Optional<ExtractionPlan> plan, long currentTime) {
+                        return plan.isPresent() ? Long.MAX_VALUE : negativeNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Optional<ExtractionPlan> plan, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(key, plan, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Optional<ExtractionPlan> plan, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, plans, "ingest.parse-plans");
+    }
+
+    /**
+     * Parses {@code text}.
+     *
+     * @param sender SMS sender id or mailbox the message came from; only used for metrics
+     */
+    public Optional<ParsedBankMessage> parse(String sender, String text) {
+        if (text == null || text.isBlank()) return Optional.empty();
+        String normalized = BankMessageParser.normalize(text);
+        String fingerprint = MessageFingerprint.of(normalized);
+        Counter[] counters = countersFor(sender);
+
+        Optional<ExtractionPlan> cached = plans.getIfPresent(fingerprint);
+        if (cached != null && cached.isPresent()) {
+            Optional<ParsedBankMessage> parsed = cached.get().apply(normalized);
+            if (parsed.isPresent()) {
+                counters[0].increment();
+                return parsed;
+            }
+            // another layout with the same fingerprint: parse in full and let it take the slot
+        }
+        counters[1].increment();
+
+        boolean knownUnparseable = cached != null && cached.isEmpty();
+        Optional<ExtractionPlan> plan = parser.planFor(normalized);
+        if (plan.isEmpty() && !knownUnparseable) plan = learn(normalized);
+        Optional<ParsedBankMessage> parsed = plan.flatMap(p -> p.apply(normalized));
+        if (parsed.isPresent()) {
+            plans.put(fingerprint, plan);
+        } else if (!knownUnparseable) {
+            // left alone when already negative, so the fallback is retried once the entry expires
+            plans.put(fingerprint, Optional.empty());
+        }
+        return parsed;
+    }
+
+    /**
+     * Fills the fields of {@code req} the caller left empty from its raw text.
+     * Fields the caller did send are kept as they are.
+     */
+    public void fillMissing(IngestRequest req) {
+        if (req.getAmount() != null && req.getCurrency() != null && req.getMerchant() != null
+                && req.getAccountHint() != null && req.getType() != null && req.getTxnDate() != null) {
+            return;
+        }
+        parse(req.getSource(), req.getRawText()).ifPresent(p -> {
+            if (req.getAmount() == null) req.setAmount(p.getAmount());
+            if (req.getCurrency() == null) req.setCurrency(p.getCurrency());
+            if (req.getMerchant() == null) req.setMerchant(p.getMerchant());
+            if (req.getAccountHint() == null) req.setAccountHint(p.getAccountHint());
+            if (req.getType() == null) req.setType(p.getType());
+            if (req.getTxnDate() == null) req.setTxnDate(p.getDate());
+        });
+    }
+
+    private Optional<ExtractionPlan> learn(String normalized) {
+        if (fallback == null) return Optional.empty();
+        try {
+            return fallback.learn(normalized).map(ExtractionPlan::compile);
+        } catch (RuntimeException ex) {
+            log.warn("Fallback message parser failed", ex);
+            return Optional.empty();
+        }
+    }
+
+    private Counter[] countersFor(String sender) {
+        String key = sender == null || sender.isBlank() ? UNKNOWN_SENDER : sender.trim().toUpperCase(Locale.ROOT);
+        if (key.length() > MAX_SENDER_LENGTH) key = key.substring(0, MAX_SENDER_LENGTH);
+        Counter[] counters = senderCounters.get(key);
+        if (counters != null) return counters;
+        if (senderCounters.size() >= maxSenders) key = OTHER_SENDER;
+        return senderCounters.computeIfAbsent(key, k -> new Counter[]{
+                Counter.builder("ingest.parse.cache").tag("sender", k).tag("result", "hit")
+                        .description("Messages parsed with a cached plan").register(meterRegistry),
+                Counter.builder("ingest.parse.cache").tag("sender", k).tag("result", "miss")
+                        .description("Messages that needed a full parse").register(meterRegistry)});
+    }
+}
@@ -0,0 +1,85 @@
+package com.app.ExpenseTracker.ingest;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads amount, currency, merchant, account hint, type and date out of bank
+ * alert text. All templates are compiled once into a single alternation, which
+ * saves one matcher per template but not the work: the engine still tries every
+ * alternative at each start position, so a message that matches nothing costs
+ * roughly its length times the number of templates. Input is therefore cut to
+ * {@link #MAX_TEXT_LENGTH} characters before matching. Each template's fields
+ * are named groups prefixed with its index. Instances are immutable and
+ * thread-safe.
+ */
+@Component
+public class BankMessageParser {
+
+    /** Alerts put their fields up front; anything past this is signature, disclaimer or quoted mail. */
+    public static final int MAX_TEXT_LENGTH = 2000;
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final List<ExtractionPlan> plans;
+    private final Pattern combined;
+    private final String[] markers;
+
+    public BankMessageParser() {
+        this(BankMessageTemplates.DEFAULTS);
+    }
+
+    public BankMessageParser(List<BankMessageTemplate> templates) {
+        List<ExtractionPlan> plans = new ArrayList<>(templates.size());
+        this.markers = new String[templates.size()];
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < templates.size(); i++) {
+            String prefix = "t" + i;
+            ExtractionPlan plan = ExtractionPlan.compile(templates.get(i), prefix);
+            plans.add(plan);
+            markers[i] = prefix;
+            if (i > 0) regex.append('|');
+            regex.append("(?<").append(prefix).append('>').append(plan.getRegex()).append(')');
+        }
+        this.plans = List.copyOf(plans);
+        this.combined = Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE);
+    }
+
+    public List<BankMessageTemplate> getTemplates() {
+        return plans.stream().map(ExtractionPlan::getTemplate).toList();
+    }
+
+    /**
+     * Cuts the text to {@link #MAX_TEXT_LENGTH} and collapses whitespace, so line
+     * breaks in SMS and e-mail bodies match single spaces.
+     */
+    public static String normalize(String text) {
+        String capped = text.length() > MAX_TEXT_LENGTH ? text.substring(0, MAX_TEXT_LENGTH) : text;
+        return WHITESPACE.matcher(capped.trim()).replaceAll(" ");
+    }
+
+    /** The first template match in {@code text}, or empty when no template fits. */
+    public Optional<ParsedBankMessage> parse(String text) {
+        if (text == null || text.isBlank()) return Optional.empty();
+        Matcher m = combined.matcher(normalize(text));
+        if (!m.find()) return Optional.empty();
+        return Optional.of(plans.get(matched(m)).extract(m));
+    }
+
+    /** The plan of the template that matches {@code normalized} first, if any. */
+    public Optional<ExtractionPlan> planFor(String normalized) {
+        Matcher m = combined.matcher(normalized);
+        return m.find() ? Optional.of(plans.get(matched(m))) : Optional.empty();
+    }
+
+    private int matched(Matcher m) {
+        int i = 0;
+        while (m.start(markers[i]) < 0) i++;
+        return i;
+    }
+}
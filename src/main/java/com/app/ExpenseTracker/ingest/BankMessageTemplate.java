@@ -0,0 +1,58 @@
+package com.app.ExpenseTracker.ingest;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One bank message layout. The pattern is a regex with placeholders for the
+ * fields it carries: {@code {amount}}, {@code {currency}}, {@code {account}},
+ * {@code {merchant}} and {@code {date}}; any may be left out, and each may appear
+ * once. The transaction type is fixed per template.
+ */
+public class BankMessageTemplate {
+
+    static final String[] FIELDS = {"amount", "currency", "account", "merchant", "date"};
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{(amount|currency|account|merchant|date)}");
+
+    private final String name;
+    private final String pattern;
+    private final String type;
+
+    public BankMessageTemplate(String name, String type, String pattern) {
+        this.name = name;
+        this.type = type;
+        this.pattern = pattern;
+    }
+
+    public String getName() { return name; }
+    public String getPattern() { return pattern; }
+    public String getType() { return type; }
+
+    /**
+     * The pattern with placeholders turned into named groups prefixed with
+     * {@code prefix}, so several templates can share one compiled regex.
+     */
+    String expand(String prefix) {
+        Matcher m = PLACEHOLDER.matcher(pattern);
+        StringBuilder sb = new StringBuilder();
+        while (m.find()) {
+            String field = m.group(1);
+            m.appendReplacement(sb, Matcher.quoteReplacement("(?<" + prefix + field + ">" + fieldRegex(field) + ")"));
+        }
+        m.appendTail(sb);
+        return sb.toString();
+    }
+
+    private static String fieldRegex(String field) {
+        switch (field) {
+            case "amount": return "\\d[\\d,]*(?:\\.\\d{1,2})?";
+            case "currency": return "Rs\\.?|INR|₹";
+            // masked account or card number; only the trailing digits are kept
+            case "account": return "\\d{3,6}";
+            case "merchant": return "[^\\s.;,][^;]*?";
+            case "date": return "\\d{4}-\\d{2}-\\d{2}|\\d{1,2}[-/ ](?:\\d{1,2}|[A-Za-z]{3})[-/ ]\\d{2,4}";
+            default: throw new IllegalArgumentException(field);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.app.ExpenseTracker.ingest;
+
+import java.util.List;
+
+/**
+ * Built-in layouts of Indian bank transaction alerts (SMS and e-mail). Order
+ * matters only when two templates match at the same position: the first wins.
+ */
+public final class BankMessageTemplates {
+
+    private BankMessageTemplates() {
+    }
+
+    // "A/c XX1234", "Acct No. x1234", "account *1234"
+    private static final String ACCOUNT = "(?:A/c|Acct|Account)(?: No\\.?)?\\s?[Xx*.]*\\s?{account}";
+    private static final String CARD = "Card(?: No\\.?)?\\s?(?:ending(?: with)?\\s)?[Xx*.]*\\s?{account}";
+    private static final String ACCOUNT_OR_CARD = "(?:A/c|Acct|Account|Card)(?: No\\.?)?\\s?[Xx*.]*\\s?{account}";
+    private static final String MONEY = "{currency}\\s?{amount}";
+    // where a merchant name ends: sentence end, or the balance/reference tail banks append
+    private static final String MERCHANT_END = "(?=\\.\\s|\\.?$|\\s+(?:on|Avl|Avbl|Ref|Refno|UPI|Not you|If not)\\b)";
+    // "credited ... from X" or "by X", where "by UPI" / "by NEFT" names the payment rail, not the payer
+    private static final String CREDITED_BY = "(?:.*?\\bfrom|.*?\\bby(?! (?:UPI|NEFT|IMPS|RTGS)\\b))";
+
+    public static final List<BankMessageTemplate> DEFAULTS = List.of(
+            // Spent Rs.1,234.00 On HDFC Bank Card 1234 At AMAZON On 2024-10-12:10:11:12
+            new BankMessageTemplate("card-spent-at", "DEBIT",
+                    "Spent " + MONEY + " On .*?" + CARD + " At {merchant} On {date}"),
+            // INR 1,499.00 spent using ICICI Bank Card XX1234 on 12-Oct-24 on AMAZON PAY.
+            new BankMessageTemplate("card-spent-using", "DEBIT",
+                    MONEY + " spent (?:using|on) .*?" + CARD + " on {date} (?:on|at) {merchant}" + MERCHANT_END),
+            // Sent Rs.250.00 From HDFC Bank A/C x1234 To ZOMATO On 12/10/24
+            new BankMessageTemplate("upi-sent", "DEBIT",
+                    "Sent " + MONEY + "\\s+From .*?" + ACCOUNT + "\\s+To {merchant}\\s+On {date}"),
+            // Rs 500.00 debited from A/c XX1234 on 12-10-24 to VPA swiggy@icici
+            new BankMessageTemplate("amount-debited-from", "DEBIT",
+                    MONEY + " (?:has been |is |was )?debited from (?:your )?.*?" + ACCOUNT + " on {date}"
+                            + "(?:.*?\\b(?:to|towards|at|for|Info:?) (?:VPA )?{merchant}" + MERCHANT_END + ")?"),
+            // A/c XX1234 debited for Rs 500.00 on 12-Oct-24 trf to ZOMATO Refno 123
+            new BankMessageTemplate("account-debited", "DEBIT",
+                    ACCOUNT + " (?:is |has been |was )?debited (?:for|by|with) " + MONEY + " on {date}"
+                            + "(?:.*?\\b(?:trf to|to|at|towards) (?:VPA )?{merchant}" + MERCHANT_END + ")?"),
+            // Rs.5,000.00 withdrawn at ATM from A/c XX1234 on 12-10-2024
+            new BankMessageTemplate("atm-withdrawal", "DEBIT",
+                    MONEY + " (?:has been )?withdrawn (?:at|from) .*?" + ACCOUNT_OR_CARD + " on {date}"),
+            // Rs 25,000.00 credited to A/c XX1234 on 12-10-24 by NEFT from ACME CORP
+            new BankMessageTemplate("amount-credited-to", "CREDIT",
+                    MONEY + " (?:has been |is |was )?credited to (?:your )?.*?" + ACCOUNT + " on {date}"
+                            + "(?:" + CREDITED_BY + " (?:VPA )?{merchant}" + MERCHANT_END + ")?"),
+            // A/c XX1234 credited with Rs 25,000.00 on 12-Oct-24 from ACME CORP
+            new BankMessageTemplate("account-credited", "CREDIT",
+                    ACCOUNT + " (?:is |has been |was )?credited (?:with|by|for) " + MONEY + " on {date}"
+                            + "(?:" + CREDITED_BY + " (?:VPA )?{merchant}" + MERCHANT_END + ")?")
+    );
+}
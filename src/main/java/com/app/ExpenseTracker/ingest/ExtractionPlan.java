@@ -0,0 +1,131 @@
+package com.app.ExpenseTracker.ingest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * A single {@link BankMessageTemplate} compiled on its own: how to pull the fields
+ * out of text known to have that layout. Immutable and thread-safe.
+ */
+public final class ExtractionPlan {
+
+    // proposals.merchant is VARCHAR(255)
+    static final int MAX_MERCHANT_LENGTH = 255;
+
+    // STRICT so an impossible date such as 31-02-24 gives no date instead of being moved to the 29th
+    private static final List<DateTimeFormatter> DATE_FORMATS = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            strict("d-M-uuuu"),
+            strict("d-M-uu"),
+            strict("d-MMM-uuuu"),
+            strict("d-MMM-uu"));
+
+    private final BankMessageTemplate template;
+    private final String regex;
+    private final Pattern pattern;
+    // per BankMessageTemplate.FIELDS, null where the template lacks the field
+    private final String[] groupNames;
+
+    private ExtractionPlan(BankMessageTemplate template, String regex, Pattern pattern, String[] groupNames) {
+        this.template = template;
+        this.regex = regex;
+        this.pattern = pattern;
+        this.groupNames = groupNames;
+    }
+
+    /** @throws IllegalArgumentException when the template is not a valid regex */
+    public static ExtractionPlan compile(BankMessageTemplate template) {
+        return compile(template, "f");
+    }
+
+    /** Compiles with group names prefixed by {@code prefix}, so several plans fit into one regex. */
+    static ExtractionPlan compile(BankMessageTemplate template, String prefix) {
+        String regex = template.expand(prefix);
+        Pattern pattern;
+        try {
+            pattern = Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
+        } catch (PatternSyntaxException ex) {
+            throw new IllegalArgumentException("Invalid bank message template " + template.getName(), ex);
+        }
+        String[] names = new String[BankMessageTemplate.FIELDS.length];
+        for (int f = 0; f < names.length; f++) {
+            String name = prefix + BankMessageTemplate.FIELDS[f];
+            if (regex.contains("(?<" + name + ">")) names[f] = name;
+        }
+        return new ExtractionPlan(template, regex, pattern, names);
+    }
+
+    public BankMessageTemplate getTemplate() {
+        return template;
+    }
+
+    String getRegex() {
+        return regex;
+    }
+
+    /** @param normalized text as returned by {@link BankMessageParser#normalize} */
+    public Optional<ParsedBankMessage> apply(String normalized) {
+        Matcher m = pattern.matcher(normalized);
+        return m.find() ? Optional.of(extract(m)) : Optional.empty();
+    }
+
+    /** Reads the fields from a match of this plan's groups, alone or inside a combined pattern. */
+    ParsedBankMessage extract(Matcher m) {
+        return new ParsedBankMessage(
+                template.getName(),
+                amount(group(m, groupNames[0])),
+                currency(group(m, groupNames[1])),
+                merchant(group(m, groupNames[3])),
+                group(m, groupNames[2]),
+                template.getType(),
+                date(group(m, groupNames[4])));
+    }
+
+    private static String group(Matcher m, String name) {
+        return name == null ? null : m.group(name);
+    }
+
+    private static BigDecimal amount(String s) {
+        return s == null ? null : new BigDecimal(s.replace(",", ""));
+    }
+
+    private static String currency(String s) {
+        // Rs, Rs., ₹ and INR all mean rupees; templates accept nothing else
+        return s == null ? null : "INR";
+    }
+
+    private static String merchant(String s) {
+        if (s == null) return null;
+        String m = s.trim();
+        if (m.length() > MAX_MERCHANT_LENGTH) m = m.substring(0, MAX_MERCHANT_LENGTH).trim();
+        return m.isEmpty() ? null : m;
+    }
+
+    private static DateTimeFormatter strict(String pattern) {
+        return new DateTimeFormatterBuilder().parseCaseInsensitive().appendPattern(pattern)
+                .toFormatter(Locale.ENGLISH).withResolverStyle(ResolverStyle.STRICT);
+    }
+
+    private static LocalDate date(String s) {
+        if (s == null) return null;
+        String normalized = s.replace('/', '-').replace(' ', '-');
+        for (DateTimeFormatter f : DATE_FORMATS) {
+            try {
+                return LocalDate.parse(normalized, f);
+            } catch (DateTimeParseException ignored) {
+                // try the next format
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,18 @@
+package com.app.ExpenseTracker.ingest;
+
+import java.util.Optional;
+
+/**
+ * Slow path for messages no built-in template matches, e.g. a rule engine or a
+ * local model. It is asked for the message's layout rather than its values, so
+ * the answer can be cached and reused for every later message of that layout.
+ * Register an implementation as a bean to enable it.
+ */
+public interface FallbackMessageParser {
+
+    /**
+     * @param normalized text as returned by {@link BankMessageParser#normalize}
+     * @return a template that matches {@code normalized}, or empty when the layout is not recognised
+     */
+    Optional<BankMessageTemplate> learn(String normalized);
+}
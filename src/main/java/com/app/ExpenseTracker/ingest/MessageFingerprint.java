@@ -0,0 +1,64 @@
+package com.app.ExpenseTracker.ingest;
+
+/**
+ * Layout key of a bank message: the text with its variable parts masked, so
+ * messages from one template share a fingerprint. Tokens with digits (amounts,
+ * dates, account numbers, references) become {@code #}, tokens with {@code @}
+ * (VPAs, e-mail addresses) become {@code @}, and all-caps words (merchant names
+ * as banks print them) become {@code W}; a run of equally masked tokens counts
+ * once, so one-word and three-word merchants look the same. Fingerprints may
+ * collide across layouts, so whatever is cached under one must be checked
+ * against the message.
+ */
+public final class MessageFingerprint {
+
+    static final int MAX_LENGTH = 1024;
+
+    private MessageFingerprint() {
+    }
+
+    /** @param normalized text as returned by {@link BankMessageParser#normalize} */
+    public static String of(String normalized) {
+        StringBuilder sb = new StringBuilder(Math.min(normalized.length(), MAX_LENGTH));
+        char lastMask = 0;
+        int i = 0, n = normalized.length();
+        while (i < n && sb.length() < MAX_LENGTH) {
+            int end = normalized.indexOf(' ', i);
+            if (end < 0) end = n;
+            // trailing punctuation stays literal: "AMAZON." and "AMAZON" end sentences differently
+            int core = end;
+            while (core > i && isPunctuation(normalized.charAt(core - 1))) core--;
+            char mask = mask(normalized, i, core);
+            if (mask == 0) {
+                if (sb.length() > 0) sb.append(' ');
+                sb.append(normalized, i, end);
+                lastMask = 0;
+            } else {
+                if (mask != lastMask) {
+                    if (sb.length() > 0) sb.append(' ');
+                    sb.append(mask);
+                }
+                sb.append(normalized, core, end);
+                lastMask = core == end ? mask : 0;
+            }
+            i = end + 1;
+        }
+        return sb.length() > MAX_LENGTH ? sb.substring(0, MAX_LENGTH) : sb.toString();
+    }
+
+    private static char mask(String s, int from, int to) {
+        if (from == to) return 0;
+        boolean upper = to - from >= 2;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (Character.isDigit(c)) return '#';
+            if (c == '@') return '@';
+            if (!Character.isUpperCase(c)) upper = false;
+        }
+        return upper ? 'W' : 0;
+    }
+
+    private static boolean isPunctuation(char c) {
+        return c == '.' || c == ',' || c == ';' || c == ':' || c == '!' || c == '?';
+    }
+}
@@ -0,0 +1,34 @@
+package com.app.ExpenseTracker.ingest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/** Fields read from a bank message; any the template does not carry are null. */
+public class ParsedBankMessage {
+    private final String template;
+    private final BigDecimal amount;
+    private final String currency;
+    private final String merchant;
+    private final String accountHint;
+    private final String type;
+    private final LocalDate date;
+
+    public ParsedBankMessage(String template, BigDecimal amount, String currency, String merchant,
+                             String accountHint, String type, LocalDate date) {
+        this.template = template;
+        this.amount = amount;
+        this.currency = currency;
+        this.merchant = merchant;
+        this.accountHint = accountHint;
+        this.type = type;
+        this.date = date;
+    }
+
+    public String getTemplate() { return template; }
+    public BigDecimal getAmount() { return amount; }
+    public String getCurrency() { return currency; }
+    public String getMerchant() { return merchant; }
+    public String getAccountHint() { return accountHint; }
+    public String getType() { return type; }
+    public LocalDate getDate() { return date; }
+}
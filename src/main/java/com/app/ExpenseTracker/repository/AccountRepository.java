@@ -1,13 +1,40 @@
 package com.app.ExpenseTracker.repository;
 
 import com.app.ExpenseTracker.entity.Account;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface AccountRepository extends JpaRepository<Account, Long> {
     List<Account> findByUserId(Long userId);
-    Optional<Account> findFirstByUserIdAndLast4(Long userId, String last4);
     Optional<Account> findFirstByUserId(Long userId);
+
+    @Query("select a.id from Account a where a.user.id = :userId and a.id in :ids")
+    List<Long> findIdsByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.id = :id")
+    Optional<Account> findByIdForUpdate(@Param("id") Long id);
+
+    @Query(value = "SELECT id FROM accounts WHERE id > :after ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Long> findIdsAfter(@Param("after") long after, @Param("limit") int limit);
+
+    /**
+     * Share-locks the given accounts that no open transaction is writing to and
+     * returns their ids; accounts with a pending balance change are left out.
+     */
+    @Query(value = "SELECT id FROM accounts WHERE id IN (:ids) ORDER BY id FOR SHARE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockIdleForShare(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update Account a set a.balanceEstimate = coalesce(a.balanceEstimate, 0) + :delta where a.id = :id")
+    int adjustBalance(@Param("id") Long id, @Param("delta") BigDecimal delta);
 }
@@ -0,0 +1,76 @@
+package com.app.ExpenseTracker.repository;
+
+import com.app.ExpenseTracker.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, Long> {
+    Optional<IdempotencyKey> findByUserIdAndKeyHash(Long userId, byte[] keyHash);
+
+    /**
+     * Claims a key for the calling transaction; returns 1 when claimed, 0 when the key
+     * is taken. While another open transaction holds the same key this blocks on the
+     * unique index until that transaction ends. An expired row is taken over.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (user_id, key_hash, request_hash, created_at, expires_at) " +
+            "VALUES (:userId, :keyHash, :requestHash, :now, :expiresAt) " +
+            "ON CONFLICT (user_id, key_hash) DO UPDATE SET request_hash = EXCLUDED.request_hash, " +
+            "    response_body = NULL, created_at = EXCLUDED.created_at, expires_at = EXCLUDED.expires_at " +
+            "WHERE idempotency_keys.expires_at < :now", nativeQuery = true)
+    int claim(@Param("userId") Long userId, @Param("keyHash") byte[] keyHash, @Param("requestHash") byte[] requestHash,
+              @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query(value = "UPDATE idempotency_keys SET response_body = :body " +
+            "WHERE user_id = :userId AND key_hash = :keyHash", nativeQuery = true)
+    int complete(@Param("userId") Long userId, @Param("keyHash") byte[] keyHash, @Param("body") String body);
+
+    /**
+     * Claims a key for queued work together with the response it will replay; returns 1
+     * when claimed. Besides an expired row, a row for the same request that has been
+     * pending since before {@code staleBefore} is taken over: its work is presumed lost,
+     * and it keeps its response so the rerun queues the same work again.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (user_id, key_hash, request_hash, response_body, pending, created_at, expires_at) " +
+            "VALUES (:userId, :keyHash, :requestHash, :body, TRUE, :now, :expiresAt) " +
+            "ON CONFLICT (user_id, key_hash) DO UPDATE SET request_hash = EXCLUDED.request_hash, " +
+            "    response_body = CASE WHEN idempotency_keys.expires_at < :now " +
+            "        THEN EXCLUDED.response_body ELSE idempotency_keys.response_body END, " +
+            "    pending = TRUE, created_at = EXCLUDED.created_at, expires_at = EXCLUDED.expires_at " +
+            "WHERE idempotency_keys.expires_at < :now " +
+            "   OR (idempotency_keys.pending AND idempotency_keys.created_at < :staleBefore " +
+            "       AND idempotency_keys.request_hash = EXCLUDED.request_hash)", nativeQuery = true)
+    int claimPending(@Param("userId") Long userId, @Param("keyHash") byte[] keyHash,
+                     @Param("requestHash") byte[] requestHash, @Param("body") String body,
+                     @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt,
+                     @Param("staleBefore") LocalDateTime staleBefore);
+
+    /** Marks queued work as written; called in the transaction that writes it. */
+    @Modifying
+    @Query(value = "UPDATE idempotency_keys SET pending = FALSE " +
+            "WHERE user_id = :userId AND key_hash = :keyHash", nativeQuery = true)
+    int completePending(@Param("userId") Long userId, @Param("keyHash") byte[] keyHash);
+
+    /** Gives a pending key back when its work could not be queued. */
+    @Modifying
+    @Query(value = "DELETE FROM idempotency_keys WHERE user_id = :userId AND key_hash = :keyHash AND pending",
+            nativeQuery = true)
+    int releasePending(@Param("userId") Long userId, @Param("keyHash") byte[] keyHash);
+
+    /**
+     * Deletes at most {@code batchSize} expired rows in its own short transaction.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM idempotency_keys WHERE id IN " +
+            "(SELECT id FROM idempotency_keys WHERE expires_at < :cutoff LIMIT :batchSize)", nativeQuery = true)
+    int deleteExpiredBatch(@Param("cutoff") LocalDateTime cutoff, @Param("batchSize") int batchSize);
+}
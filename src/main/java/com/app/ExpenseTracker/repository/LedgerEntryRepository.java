@@ -0,0 +1,63 @@
+package com.app.ExpenseTracker.repository;
+
+import com.app.ExpenseTracker.entity.LedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+
+    /**
+     * Balance at {@code at}: the latest snapshot at or before it plus the entries
+     * effective after that snapshot, so the scan stays bounded.
+     */
+    @Query(value = "SELECT COALESCE(s.balance, 0) + COALESCE((" +
+            "  SELECT SUM(e.amount) FROM ledger_entries e WHERE e.account_id = :accountId" +
+            "  AND e.effective_at > COALESCE(s.as_of, '-infinity'::timestamp) AND e.effective_at <= :at), 0) " +
+            "FROM (SELECT 1) one LEFT JOIN LATERAL (" +
+            "  SELECT bs.balance, bs.as_of FROM balance_snapshots bs" +
+            "  WHERE bs.account_id = :accountId AND bs.as_of <= :at ORDER BY bs.as_of DESC LIMIT 1) s ON true",
+            nativeQuery = true)
+    BigDecimal balanceAt(@Param("accountId") Long accountId, @Param("at") Instant at);
+
+    @Query("select coalesce(sum(e.amount), 0) from LedgerEntry e where e.accountId = :accountId")
+    BigDecimal sumByAccountId(@Param("accountId") Long accountId);
+
+    /**
+     * Rolls the given accounts forward from their previous snapshot. The caller
+     * must hold a lock on the account rows, see {@code LedgerService}.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO balance_snapshots (account_id, as_of, balance) " +
+            "SELECT a.id, :asOf, COALESCE(s.balance, 0) + COALESCE((" +
+            "  SELECT SUM(e.amount) FROM ledger_entries e WHERE e.account_id = a.id" +
+            "  AND e.effective_at > COALESCE(s.as_of, '-infinity'::timestamp) AND e.effective_at <= :asOf), 0) " +
+            "FROM accounts a LEFT JOIN LATERAL (" +
+            "  SELECT bs.balance, bs.as_of FROM balance_snapshots bs" +
+            "  WHERE bs.account_id = a.id AND bs.as_of <= :asOf ORDER BY bs.as_of DESC LIMIT 1) s ON true " +
+            "WHERE a.id IN (:accountIds) AND EXISTS (SELECT 1 FROM ledger_entries e WHERE e.account_id = a.id" +
+            "  AND e.effective_at > COALESCE(s.as_of, '-infinity'::timestamp) AND e.effective_at <= :asOf) " +
+            "ON CONFLICT (account_id, as_of) DO NOTHING", nativeQuery = true)
+    int snapshotAccounts(@Param("accountIds") Collection<Long> accountIds, @Param("asOf") Instant asOf);
+
+    /**
+     * Drops the snapshots an entry effective at {@code from} invalidates. Runs after
+     * the entry's balance update, whose row lock orders it after any snapshot of the account.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM balance_snapshots WHERE account_id = :accountId AND as_of >= :from",
+            nativeQuery = true)
+    int deleteSnapshotsFrom(@Param("accountId") Long accountId, @Param("from") Instant from);
+
+    @Query(value = "SELECT a.id FROM accounts a " +
+            "WHERE COALESCE(a.balance_estimate, 0) <> " +
+            "  COALESCE((SELECT SUM(e.amount) FROM ledger_entries e WHERE e.account_id = a.id), 0)",
+            nativeQuery = true)
+    List<Long> findDriftedAccountIds();
+}
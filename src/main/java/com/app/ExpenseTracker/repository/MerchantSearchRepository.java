@@ -0,0 +1,67 @@
+package com.app.ExpenseTracker.repository;
+
+import com.app.ExpenseTracker.dto.TransactionResponseDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Merchant lookups backed by the V12 indexes: trigram similarity for fuzzy
+ * search and a C-collated lower(merchant) btree for prefix autocomplete.
+ */
+@Repository
+public class MerchantSearchRepository {
+
+    private static final String FUZZY_SQL =
+            TransactionSearchRepository.SELECT_COLUMNS +
+            "WHERE t.user_id = :userId AND t.merchant % :q " +
+            "ORDER BY similarity(t.merchant, :q) DESC, t.txn_date DESC, t.id DESC LIMIT :limit";
+
+    // Loose index scan: each step jumps to the next distinct key after the previous one,
+    // so the cost depends on the number of suggestions, not on how many rows share a name.
+    private static final String SUGGEST_SQL =
+            "WITH RECURSIVE keys AS (" +
+            "  (SELECT lower(merchant) COLLATE \"C\" AS k FROM transactions " +
+            "   WHERE user_id = :userId AND lower(merchant) COLLATE \"C\" LIKE :prefix " +
+            "   ORDER BY 1 LIMIT 1) " +
+            "  UNION ALL " +
+            "  SELECT (SELECT lower(t.merchant) COLLATE \"C\" FROM transactions t " +
+            "          WHERE t.user_id = :userId AND lower(t.merchant) COLLATE \"C\" LIKE :prefix " +
+            "            AND lower(t.merchant) COLLATE \"C\" > keys.k " +
+            "          ORDER BY 1 LIMIT 1) " +
+            "  FROM keys WHERE keys.k IS NOT NULL" +
+            ") " +
+            "SELECT (SELECT t.merchant FROM transactions t " +
+            "        WHERE t.user_id = :userId AND lower(t.merchant) COLLATE \"C\" = keys.k LIMIT 1) " +
+            "FROM keys WHERE keys.k IS NOT NULL LIMIT :limit";
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Transactions whose merchant is similar to {@code query}, best match first.
+     * Must run inside a transaction so the threshold set here only applies to it.
+     */
+    public List<TransactionResponseDTO> searchSimilar(Long userId, String query, double threshold, int limit) {
+        jdbcTemplate.queryForObject("SELECT set_config('pg_trgm.similarity_threshold', :threshold, true)",
+                new MapSqlParameterSource("threshold", Double.toString(threshold)), String.class);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("q", query)
+                .addValue("limit", limit);
+        return jdbcTemplate.query(FUZZY_SQL, params, TransactionSearchRepository.ROW_MAPPER);
+    }
+
+    /** Distinct merchant names starting with {@code prefix} (case-insensitive), alphabetically. */
+    public List<String> suggest(Long userId, String prefix, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("prefix", TransactionSearchRepository.escapeLike(prefix.toLowerCase(Locale.ROOT)) + "%")
+                .addValue("limit", limit);
+        return jdbcTemplate.queryForList(SUGGEST_SQL, params, String.class);
+    }
+}
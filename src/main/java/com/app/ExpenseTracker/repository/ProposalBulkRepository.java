@@ -0,0 +1,166 @@
+package com.app.ExpenseTracker.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Set-based proposal writes over plain JDBC: multi-row inserts for the
+ * asynchronous ingest writer, with ids taken from the table's own sequence
+ * ahead of time so the client gets its proposal id before the row is written,
+ * and one-statement status changes for batch accept/reject.
+ */
+@Repository
+public class ProposalBulkRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO proposals (id, user_id, amount, currency, merchant, account_hint, parsed_json, type, txn_date, " +
+            "                       status, created_at) " +
+            "SELECT r.id, r.user_id, r.amount, r.currency, r.merchant, r.account_hint, r.parsed_json, r.type, r.txn_date, " +
+            "       'PENDING', r.created_at " +
+            "FROM unnest(?::bigint[], ?::bigint[], ?::numeric[], ?::varchar[], ?::varchar[], ?::varchar[], " +
+            "            ?::text[], ?::varchar[], ?::date[], ?::timestamp[]) " +
+            "     AS r(id, user_id, amount, currency, merchant, account_hint, parsed_json, type, txn_date, created_at) " +
+            // a message queued again after its first copy was presumed lost keeps its id
+            "ON CONFLICT (id) DO NOTHING";
+
+    // locks in id order first, like TransactionBulkRepository, so overlapping batches cannot deadlock
+    private static final String HANDLE_SQL =
+            "WITH selected AS (" +
+            "    SELECT id FROM proposals WHERE user_id = ? AND id = ANY(?) AND status = 'PENDING' ORDER BY id FOR UPDATE) " +
+            "UPDATE proposals p SET status = ?, responded_at = ? FROM selected s WHERE p.id = s.id " +
+            "RETURNING p.id, p.user_id, p.amount, p.currency, p.merchant, p.account_hint, p.parsed_json, p.type, " +
+            "          p.txn_date, p.created_at";
+
+    private static final RowMapper<Row> ROW_MAPPER = (rs, rowNum) -> new Row(
+            rs.getLong("id"),
+            rs.getLong("user_id"),
+            rs.getBigDecimal("amount"),
+            rs.getString("currency"),
+            rs.getString("merchant"),
+            rs.getString("account_hint"),
+            rs.getString("parsed_json"),
+            rs.getString("type"),
+            rs.getObject("txn_date", LocalDate.class),
+            rs.getTimestamp("created_at") == null ? null : rs.getTimestamp("created_at").toInstant());
+
+    /** A proposal row: one to insert, or one handled by {@link #markHandled}. */
+    public static class Row {
+        private final Long id;
+        private final Long userId;
+        private final BigDecimal amount;
+        private final String currency;
+        private final String merchant;
+        private final String accountHint;
+        private final String parsedJson;
+        private final String type;
+        private final LocalDate txnDate;
+        private final Instant createdAt;
+
+        public Row(Long id, Long userId, BigDecimal amount, String currency, String merchant, String accountHint,
+                   String parsedJson, String type, LocalDate txnDate, Instant createdAt) {
+            this.id = id;
+            this.userId = userId;
+            this.amount = amount;
+            this.currency = currency;
+            this.merchant = merchant;
+            this.accountHint = accountHint;
+            this.parsedJson = parsedJson;
+            this.type = type;
+            this.txnDate = txnDate;
+            this.createdAt = createdAt;
+        }
+
+        public Long getId() { return id; }
+        public Long getUserId() { return userId; }
+        public BigDecimal getAmount() { return amount; }
+        public String getCurrency() { return currency; }
+        public String getMerchant() { return merchant; }
+        public String getAccountHint() { return accountHint; }
+        public String getParsedJson() { return parsedJson; }
+        public String getType() { return type; }
+        public LocalDate getTxnDate() { return txnDate; }
+        public Instant getCreatedAt() { return createdAt; }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /** Reserves {@code count} proposal ids in one round trip. */
+    public List<Long> allocateIds(int count) {
+        return jdbcTemplate.queryForList(
+                "SELECT nextval('proposals_id_seq') FROM generate_series(1, ?)", Long.class, count);
+    }
+
+    /** Inserts {@code rows} in a single statement, skipping ids that already exist. */
+    public int insert(List<Row> rows) {
+        if (rows.isEmpty()) return 0;
+        int n = rows.size();
+        Long[] id = new Long[n];
+        Long[] userId = new Long[n];
+        BigDecimal[] amount = new BigDecimal[n];
+        String[] currency = new String[n];
+        String[] merchant = new String[n];
+        String[] accountHint = new String[n];
+        String[] parsedJson = new String[n];
+        String[] type = new String[n];
+        Date[] txnDate = new Date[n];
+        Timestamp[] createdAt = new Timestamp[n];
+        for (int i = 0; i < n; i++) {
+            Row r = rows.get(i);
+            id[i] = r.getId();
+            userId[i] = r.getUserId();
+            amount[i] = r.getAmount();
+            currency[i] = r.getCurrency();
+            merchant[i] = r.getMerchant();
+            accountHint[i] = r.getAccountHint();
+            parsedJson[i] = r.getParsedJson();
+            type[i] = r.getType();
+            txnDate[i] = r.getTxnDate() == null ? null : Date.valueOf(r.getTxnDate());
+            createdAt[i] = r.getCreatedAt() == null ? null : Timestamp.from(r.getCreatedAt());
+        }
+        return jdbcTemplate.update((Connection con) -> {
+            PreparedStatement ps = con.prepareStatement(INSERT_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", id));
+            ps.setArray(2, con.createArrayOf("bigint", userId));
+            ps.setArray(3, con.createArrayOf("numeric", amount));
+            ps.setArray(4, con.createArrayOf("varchar", currency));
+            ps.setArray(5, con.createArrayOf("varchar", merchant));
+            ps.setArray(6, con.createArrayOf("varchar", accountHint));
+            ps.setArray(7, con.createArrayOf("text", parsedJson));
+            ps.setArray(8, con.createArrayOf("varchar", type));
+            ps.setArray(9, con.createArrayOf("date", txnDate));
+            ps.setArray(10, con.createArrayOf("timestamp", createdAt));
+            return ps;
+        });
+    }
+
+    /**
+     * Moves the user's still-pending proposals among {@code ids} to {@code status}
+     * in one statement. Ids that are not the user's or no longer pending are
+     * left alone and not returned.
+     *
+     * @return the proposals that were changed, as they were
+     */
+    public List<Row> markHandled(Long userId, List<Long> ids, String status, Instant respondedAt) {
+        if (ids.isEmpty()) return List.of();
+        return jdbcTemplate.query((Connection con) -> {
+            PreparedStatement ps = con.prepareStatement(HANDLE_SQL);
+            ps.setLong(1, userId);
+            ps.setArray(2, con.createArrayOf("bigint", ids.toArray()));
+            ps.setString(3, status);
+            ps.setTimestamp(4, Timestamp.from(respondedAt));
+            return ps;
+        }, ROW_MAPPER);
+    }
+}
@@ -0,0 +1,21 @@
+package com.app.ExpenseTracker.repository;
+
+import com.app.ExpenseTracker.entity.RecurringRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface RecurringRuleRepository extends JpaRepository<RecurringRule, Long> {
+    List<RecurringRule> findByUserIdOrderByNextRunAt(Long userId);
+
+    /**
+     * Locks up to {@code limit} due rules, oldest first, served by idx_recurring_rules_due.
+     * Rules locked by another generator are skipped rather than waited for.
+     */
+    @Query(value = "SELECT * FROM recurring_rules WHERE active AND next_run_at <= :now " +
+            "ORDER BY next_run_at, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<RecurringRule> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
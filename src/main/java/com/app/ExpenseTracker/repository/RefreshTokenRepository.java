@@ -0,0 +1,34 @@
+package com.app.ExpenseTracker.repository;
+
+import com.app.ExpenseTracker.entity.RefreshToken;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    // row lock so two concurrent refreshes with the same token cannot both rotate it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<RefreshToken> findByTokenHash(byte[] tokenHash);
+
+    @Modifying
+    @Query("update RefreshToken r set r.revokedAt = :now where r.familyId = :familyId and r.revokedAt is null")
+    int revokeFamily(@Param("familyId") UUID familyId, @Param("now") LocalDateTime now);
+
+    /**
+     * Deletes at most {@code batchSize} expired rows in its own short transaction.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM refresh_tokens WHERE id IN " +
+            "(SELECT id FROM refresh_tokens WHERE expires_at < :cutoff LIMIT :batchSize)", nativeQuery = true)
+    int deleteExpiredBatch(@Param("cutoff") LocalDateTime cutoff, @Param("batchSize") int batchSize);
+}
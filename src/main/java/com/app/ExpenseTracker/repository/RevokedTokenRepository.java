@@ -2,14 +2,29 @@ package com.app.ExpenseTracker.repository;
 
 import com.app.ExpenseTracker.entity.RevokedToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.Optional;
+import java.util.List;
 
 @Repository
 public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
-    Optional<RevokedToken> findByToken(String token);
+    boolean existsByTokenHash(byte[] tokenHash);
 
-    void deleteByExpiresAtBefore(LocalDateTime dateTime);
+    List<RevokedToken> findByExpiresAtAfter(LocalDateTime dateTime);
+
+    List<RevokedToken> findByRevokedAtAfterAndExpiresAtAfter(LocalDateTime revokedAfter, LocalDateTime expiresAfter);
+
+    /**
+     * Deletes at most {@code batchSize} expired rows in its own short transaction.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM revoked_tokens WHERE id IN " +
+            "(SELECT id FROM revoked_tokens WHERE expires_at < :cutoff LIMIT :batchSize)", nativeQuery = true)
+    int deleteExpiredBatch(@Param("cutoff") LocalDateTime cutoff, @Param("batchSize") int batchSize);
 }
@@ -0,0 +1,74 @@
+package com.app.ExpenseTracker.repository;
+
+import com.app.ExpenseTracker.entity.SpendingRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Incremental writes hold a shared per-user advisory lock for the rest of their
+ * transaction and {@link #rebuildUser} an exclusive one, so a rebuild neither
+ * races an upsert into the rows it just deleted nor misses a delta whose
+ * transaction rows it could not see yet.
+ */
+public interface SpendingRollupRepository extends JpaRepository<SpendingRollup, SpendingRollup.Key> {
+
+    @Query("select r from SpendingRollup r where r.userId = :userId and r.month between :from and :to " +
+            "and r.txnCount > 0 order by r.month, r.categoryId, r.type")
+    List<SpendingRollup> findBuckets(@Param("userId") Long userId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /** Takes the user's shared rollup lock in the same statement, so the hot path costs no extra round trip. */
+    @Modifying
+    @Query(value = "INSERT INTO spending_rollups (user_id, month, category_id, type, total, txn_count) " +
+            "SELECT :userId, :month, :categoryId, :type, :total, :count " +
+            "FROM (SELECT pg_advisory_xact_lock_shared(hashtextextended('spending_rollups', :userId))) rollup_lock " +
+            "ON CONFLICT (user_id, month, category_id, type) DO UPDATE " +
+            "SET total = spending_rollups.total + EXCLUDED.total, " +
+            "    txn_count = spending_rollups.txn_count + EXCLUDED.txn_count", nativeQuery = true)
+    int addDelta(@Param("userId") Long userId, @Param("month") LocalDate month, @Param("categoryId") Long categoryId,
+                 @Param("type") String type, @Param("total") BigDecimal total, @Param("count") long count);
+
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock_shared(hashtextextended('spending_rollups', :userId))) l",
+            nativeQuery = true)
+    int lockUserShared(@Param("userId") Long userId);
+
+    /** Waits for every open incremental write of the user and holds new ones off until commit. */
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(hashtextextended('spending_rollups', :userId))) l",
+            nativeQuery = true)
+    int lockUserExclusive(@Param("userId") Long userId);
+
+    /** Folds every bucket of one category into another, e.g. when the category is deleted. */
+    @Modifying
+    @Query(value = "INSERT INTO spending_rollups (user_id, month, category_id, type, total, txn_count) " +
+            "SELECT user_id, month, :toCategoryId, type, total, txn_count FROM spending_rollups " +
+            "WHERE user_id = :userId AND category_id = :fromCategoryId " +
+            "ON CONFLICT (user_id, month, category_id, type) DO UPDATE " +
+            "SET total = spending_rollups.total + EXCLUDED.total, " +
+            "    txn_count = spending_rollups.txn_count + EXCLUDED.txn_count", nativeQuery = true)
+    int mergeCategory(@Param("userId") Long userId, @Param("fromCategoryId") Long fromCategoryId,
+                      @Param("toCategoryId") Long toCategoryId);
+
+    @Modifying
+    @Query(value = "DELETE FROM spending_rollups WHERE user_id = :userId AND category_id = :categoryId", nativeQuery = true)
+    int deleteCategory(@Param("userId") Long userId, @Param("categoryId") Long categoryId);
+
+    @Modifying
+    @Query(value = "DELETE FROM spending_rollups WHERE user_id = :userId", nativeQuery = true)
+    int deleteUser(@Param("userId") Long userId);
+
+    /**
+     * Recomputes a user's buckets from the transactions table; run after
+     * {@link #lockUserExclusive} and {@link #deleteUser} in the same transaction.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO spending_rollups (user_id, month, category_id, type, total, txn_count) " +
+            "SELECT user_id, date_trunc('month', COALESCE(txn_date, created_at, CURRENT_TIMESTAMP))::date, " +
+            "       COALESCE(category_id, 0), UPPER(COALESCE(type, 'UNKNOWN')), SUM(amount), COUNT(*) " +
+            "FROM transactions WHERE user_id = :userId GROUP BY 1, 2, 3, 4", nativeQuery = true)
+    int rebuildUser(@Param("userId") Long userId);
+}
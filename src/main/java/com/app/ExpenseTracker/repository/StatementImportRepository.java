@@ -0,0 +1,46 @@
+package com.app.ExpenseTracker.repository;
+
+import com.app.ExpenseTracker.entity.StatementImport;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface StatementImportRepository extends JpaRepository<StatementImport, Long> {
+    Optional<StatementImport> findByIdAndUserId(Long id, Long userId);
+
+    List<StatementImport> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
+
+    @Modifying
+    @Query("update StatementImport s set s.status = :status where s.id = :id")
+    int updateStatus(@Param("id") Long id, @Param("status") String status);
+
+    @Modifying
+    @Query("update StatementImport s set s.rowsRead = :read, s.rowsInserted = :inserted, " +
+           "s.rowsDuplicate = :duplicate, s.rowsSkipped = :skipped where s.id = :id")
+    int updateProgress(@Param("id") Long id, @Param("read") long read, @Param("inserted") long inserted,
+                       @Param("duplicate") long duplicate, @Param("skipped") long skipped);
+
+    @Modifying
+    @Query("update StatementImport s set s.status = :status, s.error = :error, s.finishedAt = :finishedAt " +
+           "where s.id = :id")
+    int finish(@Param("id") Long id, @Param("status") String status, @Param("error") String error,
+               @Param("finishedAt") Instant finishedAt);
+
+    @Modifying
+    @Query("update StatementImport s set s.heartbeatAt = :now where s.id in :ids")
+    int heartbeat(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    // imports whose worker died with its instance: nobody has stamped them since staleBefore
+    @Modifying
+    @Query("update StatementImport s set s.status = 'FAILED', s.error = :error, s.finishedAt = :finishedAt " +
+           "where s.status in ('PENDING', 'RUNNING') and (s.heartbeatAt is null or s.heartbeatAt < :staleBefore)")
+    int failStale(@Param("error") String error, @Param("finishedAt") Instant finishedAt,
+                  @Param("staleBefore") Instant staleBefore);
+}
@@ -0,0 +1,340 @@
+package com.app.ExpenseTracker.repository;
+
+import com.app.ExpenseTracker.dto.TransactionSearchCriteria;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Set-based transaction writes over plain JDBC, for bulk writers that do not need
+ * entities. Inserts take one statement per chunk, duplicates (same user and import
+ * hash) skipped by the database, inserted rows reported back; bulk updates and
+ * deletes take one statement per request and report what they touched per
+ * rollup bucket so balances and rollups can be adjusted.
+ */
+@Repository
+public class TransactionBulkRepository {
+
+    // must match allocationSize on TransactionEntity and INCREMENT BY in V7
+    static final int ID_BLOCK_SIZE = 50;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO transactions (id, user_id, account_id, merchant, amount, currency, txn_date, type, " +
+            "                          category_id, source, import_hash, created_at) " +
+            "SELECT r.id, r.user_id, r.account_id, r.merchant, r.amount, r.currency, " +
+            "       COALESCE(r.txn_date, CURRENT_TIMESTAMP), r.type, r.category_id, r.source, r.import_hash, CURRENT_TIMESTAMP " +
+            "FROM unnest(?::bigint[], ?::bigint[], ?::bigint[], ?::varchar[], ?::numeric[], ?::varchar[], " +
+            "            ?::timestamp[], ?::varchar[], ?::bigint[], ?::varchar[], ?::bytea[]) " +
+            "     AS r(id, user_id, account_id, merchant, amount, currency, txn_date, type, category_id, source, import_hash) " +
+            "ON CONFLICT (user_id, import_hash) WHERE import_hash IS NOT NULL DO NOTHING " +
+            "RETURNING id, user_id, account_id, category_id, amount, type, txn_date";
+
+    // old values of the touched rows, grouped by day so they fit both the ledger's days and the rollups' months
+    private static final String BUCKETS =
+            "SELECT account_id, COALESCE(txn_date, created_at, CURRENT_TIMESTAMP)::date AS day, " +
+            "       MIN(COALESCE(txn_date, created_at, CURRENT_TIMESTAMP)) AS first_at, " +
+            "       COALESCE(category_id, 0) AS category_id, UPPER(COALESCE(type, 'UNKNOWN')) AS type, " +
+            "       SUM(amount) AS total, " +
+            "       SUM(CASE WHEN UPPER(type) = 'DEBIT' THEN -amount ELSE amount END) AS signed_total, " +
+            "       COUNT(*) AS txn_count " +
+            "FROM touched GROUP BY 1, 2, 4, 5";
+
+    private static final RowMapper<Bucket> BUCKET_MAPPER = (rs, rowNum) -> new Bucket(
+            rs.getObject("account_id", Long.class),
+            rs.getObject("day", LocalDate.class),
+            rs.getObject("first_at", LocalDateTime.class),
+            rs.getLong("category_id"),
+            rs.getString("type"),
+            rs.getBigDecimal("total"),
+            rs.getBigDecimal("signed_total"),
+            rs.getLong("txn_count"));
+
+    /**
+     * A row to insert. {@code txnDate} is local wall-clock time, like the column.
+     * {@code id} may be preset from {@link #allocateIds}; otherwise one is allocated.
+     */
+    public static class Row {
+        private Long id;
+        private Long userId;
+        private Long accountId;
+        private Long categoryId;
+        private String merchant;
+        private BigDecimal amount;
+        private String currency;
+        private LocalDateTime txnDate;
+        private String type;
+        private String source;
+        private byte[] importHash;
+
+        // getters/setters
+        public Long getId() { return id; }
+        public void setId(Long id) { this.id = id; }
+        public Long getUserId() { return userId; }
+        public void setUserId(Long userId) { this.userId = userId; }
+        public Long getAccountId() { return accountId; }
+        public void setAccountId(Long accountId) { this.accountId = accountId; }
+        public Long getCategoryId() { return categoryId; }
+        public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+        public String getMerchant() { return merchant; }
+        public void setMerchant(String merchant) { this.merchant = merchant; }
+        public BigDecimal getAmount() { return amount; }
+        public void setAmount(BigDecimal amount) { this.amount = amount; }
+        public String getCurrency() { return currency; }
+        public void setCurrency(String currency) { this.currency = currency; }
+        public LocalDateTime getTxnDate() { return txnDate; }
+        public void setTxnDate(LocalDateTime txnDate) { this.txnDate = txnDate; }
+        public String getType() { return type; }
+        public void setType(String type) { this.type = type; }
+        public String getSource() { return source; }
+        public void setSource(String source) { this.source = source; }
+        public byte[] getImportHash() { return importHash; }
+        public void setImportHash(byte[] importHash) { this.importHash = importHash; }
+    }
+
+    /** What the database actually inserted, for balance and rollup bookkeeping. */
+    public static class Inserted {
+        private final Long id;
+        private final Long userId;
+        private final Long accountId;
+        private final Long categoryId;
+        private final BigDecimal amount;
+        private final String type;
+        private final LocalDateTime txnDate;
+
+        Inserted(Long id, Long userId, Long accountId, Long categoryId, BigDecimal amount, String type,
+                 LocalDateTime txnDate) {
+            this.id = id;
+            this.userId = userId;
+            this.accountId = accountId;
+            this.categoryId = categoryId;
+            this.amount = amount;
+            this.type = type;
+            this.txnDate = txnDate;
+        }
+
+        public Long getId() { return id; }
+        public Long getUserId() { return userId; }
+        public Long getAccountId() { return accountId; }
+        public Long getCategoryId() { return categoryId; }
+        public BigDecimal getAmount() { return amount; }
+        public String getType() { return type; }
+        public LocalDateTime getTxnDate() { return txnDate; }
+    }
+
+    /** Number of rows of one day with the same amount and type. */
+    public static class DayCount {
+        private final LocalDate day;
+        private final BigDecimal amount;
+        private final String type;
+        private final int count;
+
+        DayCount(LocalDate day, BigDecimal amount, String type, int count) {
+            this.day = day;
+            this.amount = amount;
+            this.type = type;
+            this.count = count;
+        }
+
+        public LocalDate getDay() { return day; }
+        public BigDecimal getAmount() { return amount; }
+        public String getType() { return type; }
+        public int getCount() { return count; }
+    }
+
+    /**
+     * Rows changed by a bulk update or delete, summed per account, day, category
+     * (0 for none) and type, using the values they had before the change.
+     */
+    public static class Bucket {
+        private final Long accountId;
+        private final LocalDate day;
+        private final LocalDateTime firstAt;
+        private final long categoryId;
+        private final String type;
+        private final BigDecimal total;
+        private final BigDecimal signedTotal;
+        private final long count;
+
+        Bucket(Long accountId, LocalDate day, LocalDateTime firstAt, long categoryId, String type, BigDecimal total,
+               BigDecimal signedTotal, long count) {
+            this.accountId = accountId;
+            this.day = day;
+            this.firstAt = firstAt;
+            this.categoryId = categoryId;
+            this.type = type;
+            this.total = total;
+            this.signedTotal = signedTotal;
+            this.count = count;
+        }
+
+        public Long getAccountId() { return accountId; }
+        public LocalDate getDay() { return day; }
+        /** Earliest {@code txn_date} in the bucket, local wall-clock time. */
+        public LocalDateTime getFirstAt() { return firstAt; }
+        /** First day of the month, as spending_rollups keys it. */
+        public LocalDate getMonth() { return day.withDayOfMonth(1); }
+        public long getCategoryId() { return categoryId; }
+        public String getType() { return type; }
+        public BigDecimal getTotal() { return total; }
+        public BigDecimal getSignedTotal() { return signedTotal; }
+        public long getCount() { return count; }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    /**
+     * Reserves {@code count} ids from the pooled sequence. Each nextval value V owns
+     * the block [V - 49, V], the same contract Hibernate's pooled optimizer uses, so
+     * ids handed out here never collide with entity inserts.
+     */
+    public List<Long> allocateIds(int count) {
+        int blocks = (count + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE;
+        List<Long> his = jdbcTemplate.queryForList(
+                "SELECT nextval('transactions_id_seq') FROM generate_series(1, ?)", Long.class, blocks);
+        List<Long> ids = new ArrayList<>(count);
+        for (Long hi : his) {
+            for (long id = hi - ID_BLOCK_SIZE + 1; id <= hi && ids.size() < count; id++) ids.add(id);
+        }
+        return ids;
+    }
+
+    /**
+     * Inserts {@code rows} in a single statement. Rows whose (user, import hash) already
+     * exists are skipped; rows without an import hash are always inserted.
+     */
+    public List<Inserted> insertIgnoringDuplicates(List<Row> rows) {
+        if (rows.isEmpty()) return List.of();
+        int n = rows.size();
+        int unassigned = (int) rows.stream().filter(r -> r.getId() == null).count();
+        Iterator<Long> fresh = (unassigned == 0 ? List.<Long>of() : allocateIds(unassigned)).iterator();
+        Long[] id = new Long[n];
+        Long[] userId = new Long[n];
+        Long[] accountId = new Long[n];
+        String[] merchant = new String[n];
+        BigDecimal[] amount = new BigDecimal[n];
+        String[] currency = new String[n];
+        Timestamp[] txnDate = new Timestamp[n];
+        String[] type = new String[n];
+        Long[] categoryId = new Long[n];
+        String[] source = new String[n];
+        byte[][] importHash = new byte[n][];
+        for (int i = 0; i < n; i++) {
+            Row r = rows.get(i);
+            id[i] = r.getId() != null ? r.getId() : fresh.next();
+            userId[i] = r.getUserId();
+            accountId[i] = r.getAccountId();
+            merchant[i] = r.getMerchant();
+            amount[i] = r.getAmount();
+            currency[i] = r.getCurrency();
+            txnDate[i] = r.getTxnDate() == null ? null : Timestamp.valueOf(r.getTxnDate());
+            type[i] = r.getType();
+            categoryId[i] = r.getCategoryId();
+            source[i] = r.getSource();
+            importHash[i] = r.getImportHash();
+        }
+        return jdbcTemplate.query((Connection con) -> {
+            PreparedStatement ps = con.prepareStatement(INSERT_SQL);
+            ps.setArray(1, array(con, "bigint", id));
+            ps.setArray(2, array(con, "bigint", userId));
+            ps.setArray(3, array(con, "bigint", accountId));
+            ps.setArray(4, array(con, "varchar", merchant));
+            ps.setArray(5, array(con, "numeric", amount));
+            ps.setArray(6, array(con, "varchar", currency));
+            ps.setArray(7, array(con, "timestamp", txnDate));
+            ps.setArray(8, array(con, "varchar", type));
+            ps.setArray(9, array(con, "bigint", categoryId));
+            ps.setArray(10, array(con, "varchar", source));
+            ps.setArray(11, array(con, "bytea", importHash));
+            return ps;
+        }, (rs, rowNum) -> new Inserted(
+                rs.getLong("id"),
+                rs.getLong("user_id"),
+                rs.getObject("account_id", Long.class),
+                rs.getObject("category_id", Long.class),
+                rs.getBigDecimal("amount"),
+                rs.getString("type"),
+                rs.getTimestamp("txn_date") == null ? null : rs.getTimestamp("txn_date").toLocalDateTime()));
+    }
+
+    /**
+     * Counts the rows of one account dated {@code from} to {@code to} (inclusive) that
+     * did not come from {@code source}, per day, amount and type. Statement imports
+     * use it to recognise lines that were already entered by hand, from a proposal
+     * or by a recurring rule.
+     */
+    public List<DayCount> countByDay(Long userId, Long accountId, LocalDate from, LocalDate to, String source) {
+        return jdbcTemplate.query(
+                "SELECT txn_date::date AS day, amount, UPPER(type) AS type, COUNT(*) AS n FROM transactions " +
+                "WHERE user_id = ? AND account_id IS NOT DISTINCT FROM ?::bigint " +
+                "AND txn_date >= ? AND txn_date < ? AND source IS DISTINCT FROM ? " +
+                "AND amount IS NOT NULL " +
+                "GROUP BY 1, 2, 3",
+                (rs, rowNum) -> new DayCount(rs.getObject("day", LocalDate.class), rs.getBigDecimal("amount"),
+                        rs.getString("type"), rs.getInt("n")),
+                userId, accountId, Timestamp.valueOf(from.atStartOfDay()),
+                Timestamp.valueOf(to.plusDays(1).atStartOfDay()), source);
+    }
+
+    private static Array array(Connection con, String type, Object[] values) throws SQLException {
+        return con.createArrayOf(type, values);
+    }
+
+    /**
+     * Moves the selected rows of {@code userId} to {@code categoryId} in one statement.
+     * Rows are locked in id order first, so concurrent bulk writes cannot deadlock.
+     */
+    public List<Bucket> recategorize(Long userId, List<Long> ids, TransactionSearchCriteria filter, Long categoryId) {
+        MapSqlParameterSource params = new MapSqlParameterSource("categoryId", categoryId);
+        String sql = "WITH selected AS (" +
+                "    SELECT t.id, t.account_id, t.category_id, t.txn_date, t.created_at, t.type, t.amount " +
+                "    FROM transactions t WHERE " + selection(userId, ids, filter, params) +
+                "    AND t.category_id IS DISTINCT FROM :categoryId ORDER BY t.id FOR UPDATE), " +
+                "touched AS (" +
+                "    UPDATE transactions u SET category_id = :categoryId FROM selected s WHERE u.id = s.id " +
+                "    RETURNING s.account_id, s.category_id, s.txn_date, s.created_at, s.type, s.amount) " +
+                BUCKETS;
+        return namedJdbcTemplate.query(sql, params, BUCKET_MAPPER);
+    }
+
+    /** Deletes the selected rows of {@code userId} in one statement, locking them in id order. */
+    public List<Bucket> delete(Long userId, List<Long> ids, TransactionSearchCriteria filter) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = "WITH selected AS (" +
+                "    SELECT t.id FROM transactions t WHERE " + selection(userId, ids, filter, params) +
+                "    ORDER BY t.id FOR UPDATE), " +
+                "touched AS (" +
+                "    DELETE FROM transactions d USING selected s WHERE d.id = s.id " +
+                "    RETURNING d.account_id, d.category_id, d.txn_date, d.created_at, d.type, d.amount) " +
+                BUCKETS;
+        return namedJdbcTemplate.query(sql, params, BUCKET_MAPPER);
+    }
+
+    private static String selection(Long userId, List<Long> ids, TransactionSearchCriteria filter,
+                                    MapSqlParameterSource params) {
+        String where = TransactionSearchRepository.where(userId, filter, params);
+        if (ids != null && !ids.isEmpty()) {
+            where += " AND t.id IN (:ids)";
+            params.addValue("ids", ids);
+        }
+        return where;
+    }
+}
@@ -1,11 +1,34 @@
 package com.app.ExpenseTracker.repository;
 
+import com.app.ExpenseTracker.dto.TransactionResponseDTO;
 import com.app.ExpenseTracker.entity.TransactionEntity;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
 
 public interface TransactionRepository extends JpaRepository<TransactionEntity, Long> {
-    Page<TransactionEntity> findByUserId(Long userId, Pageable pageable);
-    Page<TransactionEntity> findByUserIdAndCategoryId(Long userId, Long categoryId, Pageable pageable);
+    // list pages select only the response columns; user/account/category entities are never loaded
+    String SELECT_DTO = "select new com.app.ExpenseTracker.dto.TransactionResponseDTO(" +
+            "t.id, a.id, t.merchant, t.amount, t.currency, t.type, c.id, c.name, t.source, t.txnDate) " +
+            "from TransactionEntity t left join t.account a left join t.category c ";
+
+    @Query(value = SELECT_DTO + "where t.user.id = :userId",
+            countQuery = "select count(t) from TransactionEntity t where t.user.id = :userId")
+    Page<TransactionResponseDTO> findDtosByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(value = SELECT_DTO + "where t.user.id = :userId and c.id = :categoryId",
+            countQuery = "select count(t) from TransactionEntity t where t.user.id = :userId and t.category.id = :categoryId")
+    Page<TransactionResponseDTO> findDtosByUserIdAndCategoryId(@Param("userId") Long userId,
+                                                               @Param("categoryId") Long categoryId, Pageable pageable);
+
+    // update and delete reverse the row's old amount, so two of them must not read it at the same time
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from TransactionEntity t where t.id = :id")
+    Optional<TransactionEntity> findByIdForUpdate(@Param("id") Long id);
 }
@@ -0,0 +1,117 @@
+package com.app.ExpenseTracker.repository;
+
+import com.app.ExpenseTracker.dto.TransactionResponseDTO;
+import com.app.ExpenseTracker.dto.TransactionSearchCriteria;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Filtered transaction queries that Spring Data cannot derive: the WHERE clause
+ * only contains the filters that were actually supplied, so the planner sees a
+ * plain predicate it can match against the (user_id, ..., txn_date, id) indexes.
+ */
+@Repository
+public class TransactionSearchRepository {
+
+    public static final String SELECT_COLUMNS =
+            "SELECT t.id, t.account_id, t.merchant, t.amount, t.currency, t.type, t.category_id, " +
+            "c.name AS category_name, t.source, t.txn_date " +
+            "FROM transactions t LEFT JOIN categories c ON c.id = t.category_id ";
+
+    public static final RowMapper<TransactionResponseDTO> ROW_MAPPER = (rs, rowNum) -> {
+        TransactionResponseDTO dto = new TransactionResponseDTO();
+        dto.setId(rs.getLong("id"));
+        dto.setAccountId(rs.getObject("account_id", Long.class));
+        dto.setMerchant(rs.getString("merchant"));
+        dto.setAmount(rs.getBigDecimal("amount"));
+        dto.setCurrency(rs.getString("currency"));
+        dto.setType(rs.getString("type"));
+        dto.setCategoryId(rs.getObject("category_id", Long.class));
+        dto.setCategoryName(rs.getString("category_name"));
+        dto.setSource(rs.getString("source"));
+        Timestamp txnDate = rs.getTimestamp("txn_date");
+        dto.setTxnDate(txnDate == null ? null : txnDate.toInstant());
+        return dto;
+    };
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * One keyset slice of the user's transactions matching {@code criteria}, in
+     * (txn_date desc, id desc) order. Pass a null {@code afterTxnDate} for the first slice.
+     */
+    public List<TransactionResponseDTO> search(Long userId, TransactionSearchCriteria criteria,
+                                               Instant afterTxnDate, Long afterId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder sql = new StringBuilder(SELECT_COLUMNS).append("WHERE ").append(where(userId, criteria, params));
+        if (afterTxnDate != null) {
+            sql.append(" AND (t.txn_date, t.id) < (:afterTxnDate, :afterId)");
+            params.addValue("afterTxnDate", Timestamp.from(afterTxnDate));
+            params.addValue("afterId", afterId);
+        }
+        sql.append(" ORDER BY t.txn_date DESC, t.id DESC LIMIT :limit");
+        params.addValue("limit", limit);
+        return jdbcTemplate.query(sql.toString(), params, ROW_MAPPER);
+    }
+
+    /**
+     * Builds the predicate for the transactions alias {@code t}, always scoped to
+     * {@code userId}, and registers the bound values in {@code params}.
+     */
+    public static String where(Long userId, TransactionSearchCriteria criteria, MapSqlParameterSource params) {
+        StringBuilder where = new StringBuilder("t.user_id = :userId");
+        params.addValue("userId", userId);
+        if (criteria == null) return where.toString();
+
+        // txn_date holds local wall-clock time, so compare against local day boundaries
+        if (criteria.getFrom() != null) {
+            where.append(" AND t.txn_date >= :fromDate");
+            params.addValue("fromDate", criteria.getFrom().atStartOfDay());
+        }
+        if (criteria.getTo() != null) {
+            where.append(" AND t.txn_date < :toDate");
+            params.addValue("toDate", criteria.getTo().plusDays(1).atStartOfDay());
+        }
+        if (criteria.getMinAmount() != null) {
+            where.append(" AND t.amount >= :minAmount");
+            params.addValue("minAmount", criteria.getMinAmount());
+        }
+        if (criteria.getMaxAmount() != null) {
+            where.append(" AND t.amount <= :maxAmount");
+            params.addValue("maxAmount", criteria.getMaxAmount());
+        }
+        if (criteria.getAccountId() != null) {
+            where.append(" AND t.account_id = :accountId");
+            params.addValue("accountId", criteria.getAccountId());
+        }
+        if (criteria.getCategoryId() != null) {
+            where.append(" AND t.category_id = :categoryId");
+            params.addValue("categoryId", criteria.getCategoryId());
+        }
+        if (Boolean.TRUE.equals(criteria.getUncategorized())) {
+            where.append(" AND t.category_id IS NULL");
+        }
+        if (criteria.getType() != null && !criteria.getType().isBlank()) {
+            where.append(" AND UPPER(t.type) = :type");
+            params.addValue("type", criteria.getType().trim().toUpperCase(Locale.ROOT));
+        }
+        if (criteria.getMerchant() != null && !criteria.getMerchant().isBlank()) {
+            where.append(" AND t.merchant ILIKE :merchant ESCAPE '\\'");
+            params.addValue("merchant", "%" + escapeLike(criteria.getMerchant().trim()) + "%");
+        }
+        return where.toString();
+    }
+
+    public static String escapeLike(String s) {
+        return s.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
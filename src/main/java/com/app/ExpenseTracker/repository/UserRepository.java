@@ -2,9 +2,14 @@ package com.app.ExpenseTracker.repository;
 
 import com.app.ExpenseTracker.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
+
+    @Query("select u.id from User u")
+    List<Long> findAllIds();
 }
@@ -0,0 +1,22 @@
+package com.app.ExpenseTracker.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * Authenticated principal that also carries the user's database id, so
+ * request handling never has to look the user up by email again.
+ */
+public class AuthUser extends User {
+
+    private final Long id;
+
+    public AuthUser(Long id, String email, String password, Collection<? extends GrantedAuthority> authorities) {
+        super(email, password, authorities);
+        this.id = id;
+    }
+
+    public Long getId() { return id; }
+}
@@ -1,5 +1,7 @@
 package com.app.ExpenseTracker.security;
 
+import com.app.ExpenseTracker.entity.User;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,21 +9,25 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.*;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.*;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @Component
 public class JwtFilter extends OncePerRequestFilter {
 
+    private static final List<GrantedAuthority> AUTHORITIES = AuthorityUtils.createAuthorityList("USER");
+
     @Autowired
     private JwtUtil jwtUtil;
 
     @Autowired
-    private UserDetailsServiceImpl userDetailsService;
+    private UserCache userCache;
 
     @Autowired
     private com.app.ExpenseTracker.service.TokenBlacklistService tokenBlacklistService;
@@ -32,30 +38,36 @@ public class JwtFilter extends OncePerRequestFilter {
             FilterChain chain) throws ServletException, IOException {
 
         final String authHeader = request.getHeader("Authorization");
-        String username = null;
-        String token = null;
+        DecodedJWT decoded = null;
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
             try {
-                username = jwtUtil.extractUsername(token);
+                // signature and expiry are checked exactly once per request
+                decoded = jwtUtil.verify(authHeader.substring(7));
             } catch (Exception ex) {
                 // invalid token, ignoring - downstream will reject
             }
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        if (decoded != null && decoded.getSubject() != null
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
             // Check if token is blacklisted
-            if (tokenBlacklistService.isTokenRevoked(token)) {
+            if (tokenBlacklistService.isTokenRevoked(decoded)) {
                 // Token is revoked, do not authenticate
                 chain.doFilter(request, response);
                 return;
             }
 
-            UserDetails ud = userDetailsService.loadUserByUsername(username);
-            if (jwtUtil.validateToken(token, ud)) {
+            // the principal comes straight from the claims; no user lookup on the hot path
+            Long userId = decoded.getClaim(JwtUtil.USER_ID_CLAIM).asLong();
+            if (userId == null) {
+                // tokens issued before the uid claim existed
+                userId = userCache.findByEmail(decoded.getSubject()).map(User::getId).orElse(null);
+            }
+            if (userId != null) {
+                AuthUser principal = new AuthUser(userId, decoded.getSubject(), "", AUTHORITIES);
                 UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
-                        ud, null, ud.getAuthorities());
+                        principal, null, principal.getAuthorities());
                 auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(auth);
             }
@@ -1,48 +1,55 @@
 package com.app.ExpenseTracker.security;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Date;
+import java.util.UUID;
 
 @Component
 public class JwtUtil {
 
+    public static final String USER_ID_CLAIM = "uid";
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.expiration-ms}")
     private long expirationMs;
 
-    private Algorithm algorithm() {
-        return Algorithm.HMAC256(secret.getBytes());
+    // both are immutable and thread-safe, so build them once
+    private Algorithm algorithm;
+    private JWTVerifier verifier;
+
+    @PostConstruct
+    void init() {
+        algorithm = Algorithm.HMAC256(secret.getBytes());
+        verifier = JWT.require(algorithm).build();
     }
 
-    public String generateToken(UserDetails userDetails) {
+    public String generateToken(Long userId, String email) {
         Date now = new Date();
         Date exp = new Date(now.getTime() + expirationMs);
         return JWT.create()
-                .withSubject(userDetails.getUsername())
+                .withSubject(email)
+                .withClaim(USER_ID_CLAIM, userId)
+                .withJWTId(UUID.randomUUID().toString())
                 .withIssuedAt(now)
                 .withExpiresAt(exp)
-                .sign(algorithm());
-    }
-
-    public String extractUsername(String token) {
-        DecodedJWT decoded = JWT.require(algorithm()).build().verify(token);
-        return decoded.getSubject();
+                .sign(algorithm);
     }
 
-    public boolean validateToken(String token, UserDetails userDetails) {
-        try {
-            String username = extractUsername(token);
-            return username.equals(userDetails.getUsername());
-        } catch (Exception ex) {
-            return false;
-        }
+    /**
+     * Verifies signature and expiry once; callers read subject, expiry and jti
+     * from the returned token instead of verifying again.
+     */
+    public DecodedJWT verify(String token) throws JWTVerificationException {
+        return verifier.verify(token);
     }
 }
@@ -0,0 +1,28 @@
+package com.app.ExpenseTracker.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 helpers for keying tokens without keeping the raw token around.
+ */
+public final class TokenDigests {
+
+    private TokenDigests() {
+    }
+
+    public static byte[] sha256(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            // every JRE is required to ship SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static String hex(byte[] digest) {
+        return HexFormat.of().formatHex(digest);
+    }
+}
@@ -0,0 +1,41 @@
+package com.app.ExpenseTracker.security;
+
+import com.app.ExpenseTracker.entity.User;
+import com.app.ExpenseTracker.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Bounded, time-limited cache of {@link User} rows by email. Only used on the
+ * rare paths that still need the row, e.g. tokens issued before they carried
+ * the user id claim.
+ */
+@Component
+public class UserCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, User> byEmail;
+
+    public UserCache(UserRepository userRepository,
+                     @Value("${auth.user-cache.max-size:10000}") long maxSize,
+                     @Value("${auth.user-cache.ttl:5m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.byEmail = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public Optional<User> findByEmail(String email) {
+        User cached = byEmail.getIfPresent(email);
+        if (cached != null) return Optional.of(cached);
+        Optional<User> loaded = userRepository.findByEmail(email);
+        loaded.ifPresent(u -> byEmail.put(email, u));
+        return loaded;
+    }
+}
@@ -0,0 +1,178 @@
+package com.app.ExpenseTracker.service;
+
+import com.app.ExpenseTracker.entity.Account;
+import com.app.ExpenseTracker.repository.AccountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves the account hint of a bank message ("XX1234", "A/c *234", "Card ending
+ * 5678", a UPI handle) to one of the user's accounts. Each user's accounts are
+ * indexed in memory by their last digits, every 3+ digit suffix of those, and
+ * their aliases, so a hint costs one map lookup; the index is dropped by
+ * {@link com.app.ExpenseTracker.service.impl.AccountServiceImpl} after every
+ * account change. Writers use {@link #resolveExisting}, which also confirms
+ * the picked accounts still exist, since another instance may have deleted one.
+ */
+@Component
+public class AccountResolver {
+
+    public static final String EXACT = "EXACT";
+    public static final String SUFFIX = "SUFFIX";
+    public static final String AMBIGUOUS = "AMBIGUOUS";
+    public static final String DEFAULT = "DEFAULT";
+    public static final String NONE = "NONE";
+
+    static final int MIN_DIGITS = 3;
+
+    // the last 3+ digit run not glued to other digits: "XX1234" -> 1234, "*234" -> 234
+    private static final Pattern DIGITS = Pattern.compile("(?<!\\d)(\\d{3,})(?!\\d)");
+    private static final Pattern HANDLE = Pattern.compile("[\\w.\\-]+@[\\w.\\-]+");
+
+    private final AccountRepository accountRepository;
+    private final PerUserCache<Index> byUser;
+
+    public AccountResolver(AccountRepository accountRepository, MeterRegistry meterRegistry,
+                           @Value("${accounts.resolver-cache.max-size:10000}") long maxSize,
+                           @Value("${accounts.resolver-cache.ttl:30m}") Duration ttl) {
+        this.accountRepository = accountRepository;
+        this.byUser = new PerUserCache<>(meterRegistry, "accounts.resolver", maxSize, ttl);
+    }
+
+    /** Outcome of {@link #resolve}; {@code accountId} is null only when the user has no accounts. */
+    public static class Match {
+        private final Long accountId;
+        private final String kind;
+        private final double confidence;
+
+        Match(Long accountId, String kind, double confidence) {
+            this.accountId = accountId;
+            this.kind = kind;
+            this.confidence = confidence;
+        }
+
+        public Long getAccountId() { return accountId; }
+        public String getKind() { return kind; }
+        public double getConfidence() { return confidence; }
+    }
+
+    /**
+     * Picks the account {@code hint} names. A UPI handle or digits equal to an
+     * account's last digits or alias is an exact match; fewer digits matching the
+     * end of one account's number a suffix match; several candidates are ambiguous
+     * and the oldest account wins. Without a match the user's oldest account is
+     * returned, as before.
+     */
+    public Match resolve(Long userId, String hint) {
+        return resolve(ofUser(userId), hint);
+    }
+
+    /**
+     * {@link #resolve} for each of {@code hints}, for callers about to write the
+     * account ids: the picked accounts are checked in one query, and when one is
+     * gone the user's index is rebuilt from the database and the hints resolved
+     * again.
+     */
+    public List<Match> resolveExisting(Long userId, List<String> hints) {
+        List<Match> matches = resolveAll(ofUser(userId), hints);
+        Set<Long> ids = new HashSet<>();
+        for (Match m : matches) {
+            if (m.getAccountId() != null) ids.add(m.getAccountId());
+        }
+        if (ids.isEmpty() || accountRepository.findIdsByUserIdAndIdIn(userId, ids).size() == ids.size()) {
+            // an account deleted after this check fails the write's foreign key; rebuild for the retry
+            byUser.invalidateOnRollback(userId);
+            return matches;
+        }
+        byUser.invalidate(userId);
+        return resolveAll(ofUser(userId), hints);
+    }
+
+    public Match resolveExisting(Long userId, String hint) {
+        return resolveExisting(userId, Collections.singletonList(hint)).get(0);
+    }
+
+    private static List<Match> resolveAll(Index index, List<String> hints) {
+        List<Match> matches = new ArrayList<>(hints.size());
+        for (String hint : hints) matches.add(resolve(index, hint));
+        return matches;
+    }
+
+    private static Match resolve(Index index, String hint) {
+        if (index.fallback == null) return new Match(null, NONE, 0.0);
+        if (hint != null && !hint.isBlank()) {
+            Matcher h = HANDLE.matcher(hint);
+            if (h.find()) {
+                Match m = pick(index.exact.get(h.group().toLowerCase(Locale.ROOT)), EXACT, 1.0);
+                if (m != null) return m;
+            }
+            String digits = null;
+            Matcher d = DIGITS.matcher(hint);
+            while (d.find()) digits = d.group(1);
+            if (digits != null) {
+                Match m = pick(index.exact.get(digits), EXACT, 1.0);
+                if (m == null) m = pick(index.suffix.get(digits), SUFFIX, 0.8);
+                if (m != null) return m;
+            }
+        }
+        return new Match(index.fallback, DEFAULT, 0.2);
+    }
+
+    /** Drops the user's index once the surrounding transaction commits. */
+    public void changed(Long userId) {
+        byUser.invalidateAfterCommit(userId);
+    }
+
+    private static Match pick(List<Long> candidates, String kind, double confidence) {
+        if (candidates == null) return null;
+        if (candidates.size() > 1) return new Match(candidates.get(0), AMBIGUOUS, 0.5);
+        return new Match(candidates.get(0), kind, confidence);
+    }
+
+    private Index ofUser(Long userId) {
+        return byUser.get(userId, id -> new Index(accountRepository.findByUserId(id)));
+    }
+
+    /** Per-user lookup tables, never modified once built; candidate lists are in account id order. */
+    private static final class Index {
+        private final Map<String, List<Long>> exact = new HashMap<>();
+        private final Map<String, List<Long>> suffix = new HashMap<>();
+        private final Long fallback;
+
+        Index(List<Account> accounts) {
+            List<Account> sorted = new ArrayList<>(accounts);
+            sorted.sort(Comparator.comparing(Account::getId));
+            for (Account a : sorted) {
+                addNumber(a.getId(), a.getLast4());
+                if (a.getAliases() == null) continue;
+                for (String alias : a.getAliases()) {
+                    if (alias == null || alias.isBlank()) continue;
+                    if (alias.indexOf('@') >= 0) add(exact, alias.trim().toLowerCase(Locale.ROOT), a.getId());
+                    else addNumber(a.getId(), alias);
+                }
+            }
+            this.fallback = sorted.isEmpty() ? null : sorted.get(0).getId();
+        }
+
+        private void addNumber(Long accountId, String value) {
+            if (value == null) return;
+            String digits = value.replaceAll("\\D", "");
+            if (digits.length() < MIN_DIGITS) return;
+            add(exact, digits, accountId);
+            for (int len = MIN_DIGITS; len < digits.length(); len++) {
+                add(suffix, digits.substring(digits.length() - len), accountId);
+            }
+        }
+
+        private static void add(Map<String, List<Long>> map, String key, Long accountId) {
+            List<Long> ids = map.computeIfAbsent(key, k -> new ArrayList<>(1));
+            if (!ids.contains(accountId)) ids.add(accountId);
+        }
+    }
+}
@@ -1,13 +1,18 @@
 package com.app.ExpenseTracker.service;
 
 import com.app.ExpenseTracker.dto.AccountDTO;
+import com.app.ExpenseTracker.dto.BalanceDTO;
+import com.app.ExpenseTracker.dto.ReconciliationDTO;
 
+import java.time.Instant;
 import java.util.List;
 
 public interface AccountService {
-    AccountDTO createAccount(String username, AccountDTO dto);
-    AccountDTO updateAccount(String username, Long id, AccountDTO dto);
-    AccountDTO getAccount(String username, Long id);
-    List<AccountDTO> listAccounts(String username);
-    void deleteAccount(String username, Long id);
+    AccountDTO createAccount(Long userId, AccountDTO dto);
+    AccountDTO updateAccount(Long userId, Long id, AccountDTO dto);
+    AccountDTO getAccount(Long userId, Long id);
+    List<AccountDTO> listAccounts(Long userId);
+    void deleteAccount(Long userId, Long id);
+    BalanceDTO getBalanceAt(Long userId, Long id, Instant at);
+    ReconciliationDTO reconcile(Long userId, Long id);
 }
@@ -0,0 +1,169 @@
+package com.app.ExpenseTracker.service;
+
+import com.app.ExpenseTracker.entity.LedgerEntry;
+import com.app.ExpenseTracker.entity.TransactionEntity;
+import com.app.ExpenseTracker.repository.AccountRepository;
+import com.app.ExpenseTracker.repository.LedgerEntryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps {@code accounts.balance_estimate} in step with transaction rows.
+ * Every change is a signed delta applied with a single atomic UPDATE and
+ * recorded as a ledger entry effective at the transaction's date, and must
+ * run inside the same transaction as the row change it mirrors. A backdated
+ * entry drops the account's snapshots it lands before; the UPDATE comes first,
+ * so its row lock orders that delete after any snapshot still being taken.
+ */
+@Service
+public class BalanceService {
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    /** DEBIT lowers the balance, anything else raises it. */
+    public static BigDecimal signedAmount(String type, BigDecimal amount) {
+        if (amount == null) return BigDecimal.ZERO;
+        return "DEBIT".equalsIgnoreCase(type) ? amount.negate() : amount;
+    }
+
+    public static BigDecimal signedAmount(TransactionEntity t) {
+        return signedAmount(t.getType(), t.getAmount());
+    }
+
+    /**
+     * Net signed amounts of a multi-row write per account and day, in the order
+     * {@link #applyDeltas} books them.
+     */
+    public static class Deltas {
+        private final Map<Long, Map<LocalDate, DayTotal>> byAccount = new TreeMap<>();
+
+        /** @param at when the money moved, local wall-clock time like {@code txn_date} */
+        public void add(Long accountId, LocalDateTime at, BigDecimal signed) {
+            add(accountId, at == null ? null : at.atZone(ZoneId.systemDefault()).toInstant(), signed);
+        }
+
+        public void add(Long accountId, Instant at, BigDecimal signed) {
+            if (accountId == null || signed == null) return;
+            Instant effective = at == null ? Instant.now() : at;
+            byAccount.computeIfAbsent(accountId, id -> new TreeMap<>())
+                    .computeIfAbsent(LocalDate.ofInstant(effective, ZoneId.systemDefault()), d -> new DayTotal(effective))
+                    .add(effective, signed);
+        }
+    }
+
+    private static class DayTotal {
+        private Instant first;
+        private BigDecimal total = BigDecimal.ZERO;
+
+        DayTotal(Instant first) {
+            this.first = first;
+        }
+
+        void add(Instant at, BigDecimal signed) {
+            if (at.isBefore(first)) first = at;
+            total = total.add(signed);
+        }
+    }
+
+    /**
+     * Books one delta against an account, e.g. an opening balance or a manual adjustment.
+     *
+     * @param effectiveAt when the money moved; null for "now"
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyDelta(Long accountId, BigDecimal delta, Long transactionId, String entryType, Instant effectiveAt) {
+        if (accountId == null || delta == null || delta.signum() == 0) return;
+        accountRepository.adjustBalance(accountId, delta);
+        LedgerEntry entry = ledgerEntryRepository.save(new LedgerEntry(accountId, transactionId, entryType, delta, effectiveAt));
+        ledgerEntryRepository.deleteSnapshotsFrom(accountId, entry.getEffectiveAt());
+    }
+
+    /**
+     * Records a balance change that was already written to the account row
+     * (e.g. an explicit balance edit), keeping the ledger in step. The caller
+     * holds the account row lock, so the entry, effective now, is never behind a snapshot.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordOnly(Long accountId, BigDecimal delta, String entryType) {
+        if (accountId == null || delta == null || delta.signum() == 0) return;
+        ledgerEntryRepository.save(new LedgerEntry(accountId, null, entryType, delta));
+    }
+
+    /**
+     * Applies net deltas of a multi-row write: one UPDATE per account and one
+     * ledger entry per account and day, effective at that day's earliest row.
+     * Accounts go in ascending id order so concurrent writers always take row
+     * locks in the same order and cannot deadlock.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyDeltas(Deltas deltas) {
+        deltas.byAccount.forEach((accountId, days) -> {
+            BigDecimal total = BigDecimal.ZERO;
+            List<LedgerEntry> entries = new ArrayList<>(days.size());
+            Instant earliest = null;
+            for (DayTotal day : days.values()) {
+                if (day.total.signum() == 0) continue;
+                total = total.add(day.total);
+                entries.add(new LedgerEntry(accountId, null, LedgerEntry.BATCH, day.total, day.first));
+                if (earliest == null || day.first.isBefore(earliest)) earliest = day.first;
+            }
+            if (entries.isEmpty()) return;
+            // runs even when the days cancel out: its row lock is what orders the snapshot delete
+            accountRepository.adjustBalance(accountId, total);
+            ledgerEntryRepository.saveAll(entries);
+            ledgerEntryRepository.deleteSnapshotsFrom(accountId, earliest);
+        });
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onCreated(TransactionEntity t) {
+        if (t.getAccount() != null) {
+            applyDelta(t.getAccount().getId(), signedAmount(t), t.getId(), LedgerEntry.TXN, t.getTxnDate());
+        }
+    }
+
+    /**
+     * @param oldAccountId account the row was booked against before the update, may be null
+     * @param oldSigned    signed amount of the row before the update
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onUpdated(Long oldAccountId, BigDecimal oldSigned, TransactionEntity t) {
+        Long newAccountId = t.getAccount() == null ? null : t.getAccount().getId();
+        BigDecimal newSigned = signedAmount(t);
+        if (newAccountId != null && newAccountId.equals(oldAccountId) && newSigned.compareTo(oldSigned) == 0) return;
+
+        // lock order: lower account id first
+        boolean oldFirst = oldAccountId != null && (newAccountId == null || oldAccountId <= newAccountId);
+        if (oldFirst) {
+            applyDelta(oldAccountId, oldSigned.negate(), t.getId(), LedgerEntry.REVERSAL, t.getTxnDate());
+            applyDelta(newAccountId, newSigned, t.getId(), LedgerEntry.TXN, t.getTxnDate());
+        } else {
+            applyDelta(newAccountId, newSigned, t.getId(), LedgerEntry.TXN, t.getTxnDate());
+            applyDelta(oldAccountId, oldSigned.negate(), t.getId(), LedgerEntry.REVERSAL, t.getTxnDate());
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onDeleted(TransactionEntity t) {
+        if (t.getAccount() != null) {
+            // the row's history goes with it, so the reversal is dated like the row
+            applyDelta(t.getAccount().getId(), signedAmount(t).negate(), t.getId(), LedgerEntry.REVERSAL, t.getTxnDate());
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.app.ExpenseTracker.service;
+
+import com.app.ExpenseTracker.entity.Category;
+import com.app.ExpenseTracker.exception.NotFoundException;
+import com.app.ExpenseTracker.repository.CategoryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-process view of categories for the write paths. Global categories (no user)
+ * are read once; each user's own categories sit in a bounded cache keyed by user
+ * id and are kept current by {@link com.app.ExpenseTracker.service.impl.CategoryServiceImpl},
+ * which writes through after every change. Cached entities are detached and
+ * shared, so callers may reference them but must not modify them.
+ */
+@Component
+public class CategoryRegistry {
+
+    public static final String DEFAULT_CATEGORY = "Uncategorized";
+
+    private final CategoryRepository categoryRepository;
+    private final PerUserCache<Map<Long, Category>> byUser;
+
+    // global rows only change through migrations
+    private volatile Map<Long, Category> globals;
+    private volatile Category defaultCategory;
+
+    public CategoryRegistry(CategoryRepository categoryRepository, MeterRegistry meterRegistry,
+                            @Value("${categories.cache.max-size:10000}") long maxSize,
+                            @Value("${categories.cache.ttl:30m}") Duration ttl) {
+        this.categoryRepository = categoryRepository;
+        this.byUser = new PerUserCache<>(meterRegistry, "categories.by-user", maxSize, ttl);
+    }
+
+    /** The global "Uncategorized" category used when a write names none. */
+    public Category defaultCategory() {
+        Category c = defaultCategory;
+        if (c == null) {
+            c = categoryRepository.findByNameAndUserId(DEFAULT_CATEGORY, null)
+                    .orElseThrow(() -> new NotFoundException("Default category not found"));
+            defaultCategory = c;
+        }
+        return c;
+    }
+
+    /**
+     * A global category or one owned by {@code userId}. Ids missing from the cached
+     * map are looked up in the database, since another instance may have created
+     * them, and added to the map when found.
+     */
+    public Optional<Category> find(Long userId, Long categoryId) {
+        Category global = globals().get(categoryId);
+        if (global != null) return Optional.of(global);
+        Category cached = ofUser(userId).get(categoryId);
+        if (cached != null) {
+            // deleted by another instance: the write fails its foreign key, so reload the map for the retry
+            byUser.invalidateOnRollback(userId);
+            return Optional.of(cached);
+        }
+        Optional<Category> found = categoryRepository.findById(categoryId)
+                .filter(c -> userId.equals(c.getUserId()));
+        found.ifPresent(c -> byUser.update(userId, current -> with(current, c)));
+        return found;
+    }
+
+    public Category get(Long userId, Long categoryId) {
+        return find(userId, categoryId).orElseThrow(() -> new NotFoundException("Category not found"));
+    }
+
+    /** Records a created or updated category once the surrounding transaction commits. */
+    public void saved(Category c) {
+        byUser.updateAfterCommit(c.getUserId(), current -> with(current, c));
+    }
+
+    /** Drops a deleted category once the surrounding transaction commits. */
+    public void deleted(Long userId, Long categoryId) {
+        byUser.updateAfterCommit(userId, current -> {
+            Map<Long, Category> next = new HashMap<>(current);
+            next.remove(categoryId);
+            return Map.copyOf(next);
+        });
+    }
+
+    private Map<Long, Category> ofUser(Long userId) {
+        return byUser.get(userId, id -> index(categoryRepository.findByUserId(id)));
+    }
+
+    private Map<Long, Category> globals() {
+        Map<Long, Category> g = globals;
+        if (g == null) {
+            g = index(categoryRepository.findByUserId(null));
+            globals = g;
+        }
+        return g;
+    }
+
+    private static Map<Long, Category> with(Map<Long, Category> current, Category c) {
+        Map<Long, Category> next = new HashMap<>(current);
+        next.put(c.getId(), c);
+        return Map.copyOf(next);
+    }
+
+    private static Map<Long, Category> index(List<Category> categories) {
+        return Map.copyOf(categories.stream().collect(Collectors.toMap(Category::getId, Function.identity())));
+    }
+}
@@ -5,9 +5,9 @@ import com.app.ExpenseTracker.dto.CategoryDTO;
 import java.util.List;
 
 public interface CategoryService {
-    CategoryDTO createCategory(String username, CategoryDTO dto);
-    List<CategoryDTO> listCategories(String username);
-    CategoryDTO getCategory(String username, Long id);
-    CategoryDTO updateCategory(String username, Long id, CategoryDTO dto);
-    void deleteCategory(String username, Long id);
+    CategoryDTO createCategory(Long userId, CategoryDTO dto);
+    List<CategoryDTO> listCategories(Long userId);
+    CategoryDTO getCategory(Long userId, Long id);
+    CategoryDTO updateCategory(Long userId, Long id, CategoryDTO dto);
+    void deleteCategory(Long userId, Long id);
 }
@@ -0,0 +1,166 @@
+package com.app.ExpenseTracker.service;
+
+import com.app.ExpenseTracker.entity.IdempotencyKey;
+import com.app.ExpenseTracker.repository.IdempotencyKeyRepository;
+import com.app.ExpenseTracker.security.TokenDigests;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * {@code Idempotency-Key} handling for create endpoints. The key is claimed in
+ * the same transaction as the write and the response is stored with it, so a
+ * retry either replays the committed response or, if the first attempt rolled
+ * back, runs again. A retry that arrives while the first attempt is still open
+ * waits for it on the key's unique index instead of writing a second row.
+ * Work that is queued instead of done in the request goes through
+ * {@link #executeQueued}, where the writer of the work completes the key.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final TransactionTemplate tx;
+
+    @Value("${idempotency.ttl:24h}")
+    private Duration ttl;
+
+    @Value("${idempotency.purge-batch-size:1000}")
+    private int purgeBatchSize;
+
+    public IdempotencyService(PlatformTransactionManager transactionManager) {
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Runs {@code action} once per (user, endpoint, key).
+     *
+     * @param key          the client's Idempotency-Key; when null the action simply runs
+     * @param request      request body, compared with the one the key was first used for
+     * @param responseType type to read a stored response back as
+     */
+    public <T> T execute(Long userId, String endpoint, String key, Object request, Class<T> responseType,
+                         Supplier<T> action) {
+        if (key == null) return action.get();
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        byte[] keyHash = TokenDigests.sha256(endpoint + "|" + key);
+        byte[] requestHash = TokenDigests.sha256(toJson(request));
+
+        return tx.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (idempotencyKeyRepository.claim(userId, keyHash, requestHash, now, now.plus(ttl)) == 1) {
+                T response = action.get();
+                idempotencyKeyRepository.complete(userId, keyHash, toJson(response));
+                return response;
+            }
+            IdempotencyKey existing = idempotencyKeyRepository.findByUserIdAndKeyHash(userId, keyHash)
+                    .orElseThrow(() -> new IllegalStateException("Idempotency key vanished while being replayed"));
+            if (!MessageDigest.isEqual(existing.getRequestHash(), requestHash)) {
+                throw new IllegalArgumentException(HEADER + " was already used for a different request");
+            }
+            return fromJson(existing.getResponseBody(), responseType);
+        });
+    }
+
+    /**
+     * Runs queued work once per (user, endpoint, key). {@code prepare} builds the
+     * response (validating the request and reserving ids), which is committed with the
+     * key as pending before {@code enqueue} queues the work; whoever writes the work
+     * calls {@link IdempotencyKeyRepository#completePending} in the same transaction.
+     * A retry replays the stored response. A key still pending after
+     * {@code staleAfter} is presumed lost with its message, and the retry queues the
+     * work again with the stored response, so it reuses the ids the client was given.
+     *
+     * @param enqueue receives the response to queue the work for, and the key hash to
+     *                complete (null when the client sent no key)
+     */
+    public <T> T executeQueued(Long userId, String endpoint, String key, Object request, Class<T> responseType,
+                               Duration staleAfter, Supplier<T> prepare, BiConsumer<T, byte[]> enqueue) {
+        if (key == null) {
+            T response = prepare.get();
+            enqueue.accept(response, null);
+            return response;
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        byte[] keyHash = TokenDigests.sha256(endpoint + "|" + key);
+        byte[] requestHash = TokenDigests.sha256(toJson(request));
+        String prepared = toJson(prepare.get());
+
+        Claim claim = tx.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            boolean claimed = idempotencyKeyRepository.claimPending(userId, keyHash, requestHash, prepared,
+                    now, now.plus(ttl), now.minus(staleAfter)) == 1;
+            IdempotencyKey row = idempotencyKeyRepository.findByUserIdAndKeyHash(userId, keyHash)
+                    .orElseThrow(() -> new IllegalStateException("Idempotency key vanished while being replayed"));
+            if (!claimed && !MessageDigest.isEqual(row.getRequestHash(), requestHash)) {
+                throw new IllegalArgumentException(HEADER + " was already used for a different request");
+            }
+            return new Claim(claimed, row.getResponseBody());
+        });
+        T response = fromJson(claim.responseBody(), responseType);
+        if (!claim.claimed()) return response;
+        try {
+            enqueue.accept(response, keyHash);
+        } catch (RuntimeException ex) {
+            tx.executeWithoutResult(status -> idempotencyKeyRepository.releasePending(userId, keyHash));
+            throw ex;
+        }
+        return response;
+    }
+
+    /**
+     * Removes expired keys in bounded chunks, each committed separately.
+     */
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:3600000}",
+            initialDelayString = "${idempotency.purge-initial-delay-ms:60000}")
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now();
+        int deleted;
+        do {
+            deleted = idempotencyKeyRepository.deleteExpiredBatch(cutoff, purgeBatchSize);
+        } while (deleted >= purgeBatchSize);
+    }
+
+    private record Claim(boolean claimed, String responseBody) {
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private <T> T fromJson(String json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.app.ExpenseTracker.service;
+
+import com.app.ExpenseTracker.config.WorkerThreads;
+import com.app.ExpenseTracker.dto.IngestRequest;
+import com.app.ExpenseTracker.exception.QueueFullException;
+import com.app.ExpenseTracker.ingest.BankMessageExtractor;
+import com.app.ExpenseTracker.repository.IdempotencyKeyRepository;
+import com.app.ExpenseTracker.repository.ProposalBulkRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Asynchronous ingest: requests are validated and put on a bounded in-memory
+ * queue with a pre-allocated proposal id, and writer threads drain the queue
+ * into multi-row inserts. A full queue is refused straight away (429) rather
+ * than letting request threads wait on the database during bursts. Queued
+ * messages are lost if the process dies before they are written, so clients
+ * that need a guarantee keep using the synchronous endpoint or send an
+ * Idempotency-Key: its claim stays pending until the writer inserts the
+ * proposal in the same transaction, and a retry after {@code ingest.drain-timeout}
+ * queues a lost message again.
+ */
+@Service
+public class IngestPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestPipeline.class);
+
+    // column limits of proposals; checked up front because the writer cannot report errors to the client
+    static final int MAX_TEXT_LENGTH = 255;
+    static final int MAX_CURRENCY_LENGTH = 10;
+    static final int MAX_RAW_TEXT_LENGTH = 10_000;
+
+    private final ProposalBulkRepository proposalBulkRepository;
+    private final BankMessageExtractor bankMessageExtractor;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final TransactionTemplate tx;
+    private final BlockingQueue<Pending> queue;
+    private final ExecutorService writers;
+    private final int batchSize;
+    private final int idBlockSize;
+    private final long retryAfterSeconds;
+    private final Duration drainTimeout;
+
+    private final ReentrantLock idLock = new ReentrantLock();
+    private final ArrayDeque<Long> ids = new ArrayDeque<>();
+
+    private final DistributionSummary batchSizes;
+    private final Timer lag;
+    private final Counter rejected;
+    private final Counter dropped;
+
+    private volatile boolean running = true;
+
+    public IngestPipeline(ProposalBulkRepository proposalBulkRepository, BankMessageExtractor bankMessageExtractor,
+                          IdempotencyKeyRepository idempotencyKeyRepository,
+                          PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                          @Value("${ingest.queue-capacity:10000}") int capacity,
+                          @Value("${ingest.batch-size:500}") int batchSize,
+                          @Value("${ingest.writers:2}") int writers,
+                          @Value("${ingest.id-block-size:100}") int idBlockSize,
+                          @Value("${ingest.retry-after-seconds:1}") long retryAfterSeconds,
+                          @Value("${ingest.drain-timeout:10s}") Duration drainTimeout,
+                          @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.proposalBulkRepository = proposalBulkRepository;
+        this.bankMessageExtractor = bankMessageExtractor;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.idBlockSize = idBlockSize;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.drainTimeout = drainTimeout;
+
+        Gauge.builder("ingest.queue.depth", queue, BlockingQueue::size)
+                .description("Ingest messages accepted but not yet written")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("ingest.batch.size")
+                .description("Proposals per multi-row insert")
+                .register(meterRegistry);
+        this.lag = Timer.builder("ingest.lag")
+                .description("Time from accepting an ingest message to its proposal being written")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("ingest.rejected")
+                .description("Ingest messages refused because the queue was full")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("ingest.dropped")
+                .description("Queued ingest messages that could not be written")
+                .register(meterRegistry);
+
+        this.writers = WorkerThreads.fixedPool(writers, "ingest-writer-", virtualThreads);
+        for (int i = 0; i < writers; i++) this.writers.execute(this::drain);
+    }
+
+    /**
+     * Fills missing fields from the raw text, validates the message and reserves the
+     * id its proposal will be written under.
+     *
+     * @throws QueueFullException when the queue is at capacity
+     */
+    public Long prepare(IngestRequest req) {
+        bankMessageExtractor.fillMissing(req);
+        validate(req);
+        checkAccepting();
+        return nextId();
+    }
+
+    /**
+     * Queues a prepared message.
+     *
+     * @param idempotencyKeyHash pending key to complete along with the insert, or null
+     * @throws QueueFullException when the queue is at capacity
+     */
+    public void enqueue(Long proposalId, Long userId, IngestRequest req, byte[] idempotencyKeyHash) {
+        checkAccepting();
+        ProposalBulkRepository.Row row = new ProposalBulkRepository.Row(proposalId, userId, req.getAmount(),
+                req.getCurrency(), req.getMerchant(), req.getAccountHint(), req.getRawText(),
+                req.getType() == null ? null : req.getType().toUpperCase(Locale.ROOT), req.getTxnDate(), Instant.now());
+        if (!queue.offer(new Pending(row, idempotencyKeyHash, System.nanoTime()))) throw full();
+    }
+
+    /** How long a queued message can take to be written before it is presumed lost. */
+    public Duration drainTimeout() {
+        return drainTimeout;
+    }
+
+    private void checkAccepting() {
+        if (!running) throw new QueueFullException("Ingest is shutting down", retryAfterSeconds);
+        // cheap early refusal; the offer in enqueue is what actually bounds the queue
+        if (queue.remainingCapacity() == 0) throw full();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writers.shutdown();
+        if (!writers.awaitTermination(drainTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            log.warn("Ingest writers did not drain within {}; {} messages lost", drainTimeout, queue.size());
+            writers.shutdownNow();
+        }
+    }
+
+    private QueueFullException full() {
+        rejected.increment();
+        return new QueueFullException("Ingest queue is full", retryAfterSeconds);
+    }
+
+    private Long nextId() {
+        idLock.lock();
+        try {
+            // one sequence round trip per block; a lock rather than synchronized so virtual threads are not pinned
+            if (ids.isEmpty()) ids.addAll(proposalBulkRepository.allocateIds(idBlockSize));
+            return ids.poll();
+        } finally {
+            idLock.unlock();
+        }
+    }
+
+    private void drain() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                // whatever else is already waiting goes into the same statement
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.error("Ingest writer failed", ex);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        List<ProposalBulkRepository.Row> rows = new ArrayList<>(batch.size());
+        for (Pending p : batch) rows.add(p.row);
+        try {
+            insert(rows, batch);
+            batchSizes.record(rows.size());
+            recordLag(batch);
+        } catch (DataAccessException ex) {
+            // one bad row (e.g. its user was deleted meanwhile) must not lose the rest
+            log.warn("Ingest batch of {} failed, retrying row by row", rows.size(), ex);
+            for (Pending p : batch) {
+                try {
+                    insert(List.of(p.row), List.of(p));
+                    batchSizes.record(1);
+                    recordLag(List.of(p));
+                } catch (DataAccessException rowEx) {
+                    dropped.increment();
+                    log.warn("Dropped ingest message for proposal {}: {}", p.row.getId(), rowEx.getMessage());
+                }
+            }
+        }
+    }
+
+    /** Inserts the proposals and completes their idempotency keys in one transaction. */
+    private void insert(List<ProposalBulkRepository.Row> rows, List<Pending> batch) {
+        tx.executeWithoutResult(status -> {
+            proposalBulkRepository.insert(rows);
+            for (Pending p : batch) {
+                if (p.idempotencyKeyHash != null) {
+                    idempotencyKeyRepository.completePending(p.row.getUserId(), p.idempotencyKeyHash);
+                }
+            }
+        });
+    }
+
+    private void recordLag(List<Pending> written) {
+        long now = System.nanoTime();
+        for (Pending p : written) lag.record(now - p.enqueuedAt, TimeUnit.NANOSECONDS);
+    }
+
+    static void validate(IngestRequest req) {
+        if (req.getAmount() == null && isBlank(req.getRawText())) {
+            throw new IllegalArgumentException("amount or rawText is required");
+        }
+        if (req.getAmount() != null && req.getAmount().signum() < 0) {
+            throw new IllegalArgumentException("amount must not be negative");
+        }
+        if (req.getType() != null && !req.getType().equalsIgnoreCase("DEBIT") && !req.getType().equalsIgnoreCase("CREDIT")) {
+            throw new IllegalArgumentException("type must be DEBIT or CREDIT");
+        }
+        checkLength("merchant", req.getMerchant(), MAX_TEXT_LENGTH);
+        checkLength("accountHint", req.getAccountHint(), MAX_TEXT_LENGTH);
+        checkLength("currency", req.getCurrency(), MAX_CURRENCY_LENGTH);
+        checkLength("rawText", req.getRawText(), MAX_RAW_TEXT_LENGTH);
+    }
+
+    private static void checkLength(String field, String value, int max) {
+        if (value != null && value.length() > max) {
+            throw new IllegalArgumentException(field + " must be at most " + max + " characters");
+        }
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.isBlank();
+    }
+
+    private static final class Pending {
+        private final ProposalBulkRepository.Row row;
+        private final byte[] idempotencyKeyHash;
+        private final long enqueuedAt;
+
+        Pending(ProposalBulkRepository.Row row, byte[] idempotencyKeyHash, long enqueuedAt) {
+            this.row = row;
+            this.idempotencyKeyHash = idempotencyKeyHash;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
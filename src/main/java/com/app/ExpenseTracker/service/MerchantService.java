@@ -0,0 +1,10 @@
+package com.app.ExpenseTracker.service;
+
+import com.app.ExpenseTracker.dto.TransactionResponseDTO;
+
+import java.util.List;
+
+public interface MerchantService {
+    List<TransactionResponseDTO> searchTransactions(Long userId, String query, int limit);
+    List<String> suggestMerchants(Long userId, String prefix, int limit);
+}
@@ -0,0 +1,112 @@
+package com.app.ExpenseTracker.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounded cache of one value per user, derived from rows that change through
+ * this application. The first caller loads on its own thread while concurrent
+ * callers wait on the same future, so no query runs under a cache lock, where
+ * a virtual thread would pin its carrier. Invalidating or updating an entry
+ * whose load is still in flight removes it, and the load's result is then
+ * handed to its caller but not cached, so a load that read rows from before a
+ * commit cannot overwrite the change.
+ */
+final class PerUserCache<V> {
+
+    private final AsyncCache<Long, V> cache;
+
+    PerUserCache(MeterRegistry meterRegistry, String name, long maxSize, Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                // bounds staleness when another instance changed the rows
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+
+    V get(Long userId, Function<Long, V> loader) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> current = cache.get(userId, (id, executor) -> mine);
+        if (current == mine) {
+            try {
+                mine.complete(loader.apply(userId));
+            } catch (RuntimeException | Error ex) {
+                // a failed future is dropped by the cache, so the next caller loads again
+                mine.completeExceptionally(ex);
+                throw ex;
+            }
+        }
+        try {
+            return current.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) throw cause;
+            throw ex;
+        }
+    }
+
+    /** Applies {@code update} to the user's loaded value; drops the entry instead if it is still loading. */
+    void update(Long userId, UnaryOperator<V> update) {
+        cache.asMap().computeIfPresent(userId, (id, value) -> value.isDone() && !value.isCompletedExceptionally()
+                ? CompletableFuture.completedFuture(update.apply(value.join()))
+                : null);
+    }
+
+    void invalidate(Long userId) {
+        cache.synchronous().invalidate(userId);
+    }
+
+    void invalidateAfterCommit(Long userId) {
+        afterCommit(() -> invalidate(userId));
+    }
+
+    void updateAfterCommit(Long userId, UnaryOperator<V> update) {
+        afterCommit(() -> update(userId, update));
+    }
+
+    /**
+     * Drops the user's entry if the surrounding transaction rolls back, e.g. because
+     * a row it handed out was deleted meanwhile by another instance. Registered once
+     * per user and transaction.
+     */
+    void invalidateOnRollback(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        RollbackKey key = new RollbackKey(this, userId);
+        if (TransactionSynchronizationManager.hasResource(key)) return;
+        TransactionSynchronizationManager.bindResource(key, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(key);
+                if (status == STATUS_ROLLED_BACK) cache.synchronous().invalidate(userId);
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record RollbackKey(PerUserCache<?> cache, Long userId) {
+    }
+}
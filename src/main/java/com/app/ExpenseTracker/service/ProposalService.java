@@ -0,0 +1,106 @@
+package com.app.ExpenseTracker.service;
+
+import com.app.ExpenseTracker.dto.ProposalBatchResultDTO;
+import com.app.ExpenseTracker.entity.SpendingRollup;
+import com.app.ExpenseTracker.repository.ProposalBulkRepository;
+import com.app.ExpenseTracker.repository.TransactionBulkRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Batch accept/reject of pending proposals. A batch costs a fixed number of
+ * statements however many ids it names: one UPDATE flips the statuses and
+ * returns the proposals, account hints are resolved by the in-memory
+ * {@link AccountResolver}, all transactions go into one multi-row insert, and
+ * balances and rollups get one delta per account and bucket.
+ */
+@Service
+public class ProposalService {
+
+    public static final String SOURCE = "PROPOSAL";
+
+    @Autowired private ProposalBulkRepository proposalBulkRepository;
+    @Autowired private TransactionBulkRepository bulkRepository;
+    @Autowired private AccountResolver accountResolver;
+    @Autowired private CategoryRegistry categoryRegistry;
+    @Autowired private BalanceService balanceService;
+    @Autowired private SpendingRollupService rollupService;
+
+    @Transactional
+    public ProposalBatchResultDTO acceptProposals(Long userId, List<Long> ids) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ProposalBulkRepository.Row> accepted = proposalBulkRepository.markHandled(
+                userId, distinct(ids), "ACCEPTED", now.atZone(ZoneId.systemDefault()).toInstant());
+        if (accepted.isEmpty()) return new ProposalBatchResultDTO(0, skipped(ids, accepted), Map.of());
+
+        Long categoryId = categoryRegistry.defaultCategory().getId();
+        Iterator<Long> txnIds = bulkRepository.allocateIds(accepted.size()).iterator();
+        List<String> hints = new ArrayList<>(accepted.size());
+        for (ProposalBulkRepository.Row p : accepted) hints.add(p.getAccountHint());
+        Iterator<AccountResolver.Match> accounts = accountResolver.resolveExisting(userId, hints).iterator();
+
+        Map<Long, Long> transactions = new LinkedHashMap<>();
+        List<TransactionBulkRepository.Row> rows = new ArrayList<>(accepted.size());
+        for (ProposalBulkRepository.Row p : accepted) {
+            TransactionBulkRepository.Row r = new TransactionBulkRepository.Row();
+            r.setId(txnIds.next());
+            r.setUserId(userId);
+            r.setAccountId(accounts.next().getAccountId());
+            r.setCategoryId(categoryId);
+            r.setMerchant(p.getMerchant());
+            r.setAmount(p.getAmount() == null ? BigDecimal.ZERO : p.getAmount());
+            r.setCurrency(p.getCurrency());
+            r.setType(p.getType() == null ? "DEBIT" : p.getType());
+            r.setTxnDate(txnDate(p.getTxnDate(), now));
+            r.setSource(SOURCE);
+            rows.add(r);
+            transactions.put(p.getId(), r.getId());
+        }
+
+        BalanceService.Deltas balanceDeltas = new BalanceService.Deltas();
+        Map<SpendingRollup.Key, SpendingRollupService.Delta> rollupDeltas = new HashMap<>();
+        for (TransactionBulkRepository.Inserted t : bulkRepository.insertIgnoringDuplicates(rows)) {
+            balanceDeltas.add(t.getAccountId(), t.getTxnDate(), BalanceService.signedAmount(t.getType(), t.getAmount()));
+            Instant at = t.getTxnDate().atZone(ZoneId.systemDefault()).toInstant();
+            rollupDeltas.computeIfAbsent(SpendingRollupService.keyOf(userId, at, t.getCategoryId(), t.getType()),
+                    k -> new SpendingRollupService.Delta()).add(t.getAmount(), 1);
+        }
+        balanceService.applyDeltas(balanceDeltas);
+        rollupService.applyAll(rollupDeltas);
+        return new ProposalBatchResultDTO(accepted.size(), skipped(ids, accepted), transactions);
+    }
+
+    @Transactional
+    public ProposalBatchResultDTO rejectProposals(Long userId, List<Long> ids) {
+        List<ProposalBulkRepository.Row> rejected = proposalBulkRepository.markHandled(
+                userId, distinct(ids), "REJECTED", Instant.now());
+        return new ProposalBatchResultDTO(rejected.size(), skipped(ids, rejected), Map.of());
+    }
+
+    /** A date read from the bank message; today's keeps the time of acceptance. */
+    static LocalDateTime txnDate(LocalDate date, LocalDateTime now) {
+        return date == null || date.equals(now.toLocalDate()) ? now : date.atStartOfDay();
+    }
+
+    private static List<Long> distinct(List<Long> ids) {
+        return new ArrayList<>(new LinkedHashSet<>(ids));
+    }
+
+    private static List<Long> skipped(List<Long> requested, List<ProposalBulkRepository.Row> handled) {
+        Set<Long> done = new HashSet<>();
+        for (ProposalBulkRepository.Row p : handled) done.add(p.getId());
+        List<Long> skipped = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(requested)) {
+            if (!done.contains(id)) skipped.add(id);
+        }
+        return skipped;
+    }
+}
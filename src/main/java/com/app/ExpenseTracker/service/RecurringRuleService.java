@@ -0,0 +1,13 @@
+package com.app.ExpenseTracker.service;
+
+import com.app.ExpenseTracker.dto.RecurringRuleDTO;
+
+import java.util.List;
+
+public interface RecurringRuleService {
+    RecurringRuleDTO createRule(Long userId, RecurringRuleDTO dto);
+    List<RecurringRuleDTO> listRules(Long userId);
+    RecurringRuleDTO getRule(Long userId, Long id);
+    RecurringRuleDTO updateRule(Long userId, Long id, RecurringRuleDTO dto);
+    void deleteRule(Long userId, Long id);
+}
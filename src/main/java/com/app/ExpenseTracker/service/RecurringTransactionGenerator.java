@@ -0,0 +1,123 @@
+package com.app.ExpenseTracker.service;
+
+import com.app.ExpenseTracker.entity.RecurringRule;
+import com.app.ExpenseTracker.entity.SpendingRollup;
+import com.app.ExpenseTracker.repository.RecurringRuleRepository;
+import com.app.ExpenseTracker.repository.TransactionBulkRepository;
+import com.app.ExpenseTracker.security.TokenDigests;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Turns due {@link RecurringRule}s into transactions. Each pass locks a chunk of
+ * due rules (oldest first, skipping rules another instance holds), inserts all
+ * their occurrences up to now with one multi-row insert, applies the balance and
+ * rollup deltas in aggregate and advances the rules, all in one transaction.
+ * Work therefore scales with the number of due rules, however many users exist.
+ */
+@Service
+public class RecurringTransactionGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(RecurringTransactionGenerator.class);
+
+    public static final String SOURCE = "RECURRING";
+
+    @Autowired private RecurringRuleRepository ruleRepository;
+    @Autowired private TransactionBulkRepository bulkRepository;
+    @Autowired private BalanceService balanceService;
+    @Autowired private SpendingRollupService rollupService;
+
+    private final TransactionTemplate tx;
+
+    @Value("${recurring.chunk-size:500}")
+    private int chunkSize;
+
+    // bounds one rule's catch-up per pass; a rule still behind stays due for the next chunk
+    @Value("${recurring.max-catch-up:100}")
+    private int maxOccurrencesPerRule;
+
+    public RecurringTransactionGenerator(PlatformTransactionManager transactionManager) {
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${recurring.poll-interval-ms:60000}",
+            initialDelayString = "${recurring.initial-delay-ms:30000}")
+    public void generateDue() {
+        LocalDateTime now = LocalDateTime.now();
+        long rules = 0, created = 0;
+        int[] chunk;
+        do {
+            chunk = tx.execute(status -> generateChunk(now));
+            rules += chunk[0];
+            created += chunk[1];
+        } while (chunk[0] >= chunkSize);
+        if (rules > 0) log.info("Recurring rules: {} processed, {} transactions created", rules, created);
+    }
+
+    /** @return number of rules processed and transactions inserted */
+    private int[] generateChunk(LocalDateTime now) {
+        List<RecurringRule> due = ruleRepository.lockDue(now, chunkSize);
+        List<TransactionBulkRepository.Row> rows = new ArrayList<>();
+        for (RecurringRule rule : due) {
+            CronExpression cron = CronExpression.parse(rule.getCadence());
+            LocalDateTime at = rule.getNextRunAt();
+            int n = 0;
+            while (at != null && !at.isAfter(now) && n < maxOccurrencesPerRule
+                    && (rule.getEndAt() == null || !at.isAfter(rule.getEndAt()))) {
+                rows.add(row(rule, at));
+                at = cron.next(at);
+                n++;
+            }
+            if (at == null || (rule.getEndAt() != null && at.isAfter(rule.getEndAt()))) {
+                rule.setActive(false);
+            } else {
+                rule.setNextRunAt(at);
+            }
+        }
+
+        BalanceService.Deltas balanceDeltas = new BalanceService.Deltas();
+        Map<SpendingRollup.Key, SpendingRollupService.Delta> rollupDeltas = new HashMap<>();
+        int inserted = 0;
+        for (int from = 0; from < rows.size(); from += chunkSize) {
+            List<TransactionBulkRepository.Row> part = rows.subList(from, Math.min(rows.size(), from + chunkSize));
+            for (TransactionBulkRepository.Inserted t : bulkRepository.insertIgnoringDuplicates(part)) {
+                inserted++;
+                balanceDeltas.add(t.getAccountId(), t.getTxnDate(), BalanceService.signedAmount(t.getType(), t.getAmount()));
+                Instant txnDate = t.getTxnDate().atZone(ZoneId.systemDefault()).toInstant();
+                rollupDeltas.computeIfAbsent(SpendingRollupService.keyOf(t.getUserId(), txnDate, t.getCategoryId(), t.getType()),
+                        k -> new SpendingRollupService.Delta()).add(t.getAmount(), 1);
+            }
+        }
+        balanceService.applyDeltas(balanceDeltas);
+        rollupService.applyAll(rollupDeltas);
+        return new int[]{due.size(), inserted};
+    }
+
+    private static TransactionBulkRepository.Row row(RecurringRule rule, LocalDateTime at) {
+        TransactionBulkRepository.Row r = new TransactionBulkRepository.Row();
+        r.setUserId(rule.getUserId());
+        r.setAccountId(rule.getAccountId());
+        r.setCategoryId(rule.getCategoryId());
+        r.setMerchant(rule.getMerchant());
+        r.setAmount(rule.getAmount());
+        r.setCurrency(rule.getCurrency());
+        r.setTxnDate(at);
+        r.setType(rule.getType());
+        r.setSource(SOURCE);
+        // one row per (rule, occurrence) even if a pass is retried after a crash
+        r.setImportHash(TokenDigests.sha256("recurring|" + rule.getId() + "|" + at));
+        return r;
+    }
+}
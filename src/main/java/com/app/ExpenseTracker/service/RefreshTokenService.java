@@ -0,0 +1,108 @@
+package com.app.ExpenseTracker.service;
+
+import com.app.ExpenseTracker.entity.RefreshToken;
+import com.app.ExpenseTracker.repository.RefreshTokenRepository;
+import com.app.ExpenseTracker.security.TokenDigests;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Issues and rotates opaque refresh tokens. Each refresh hands out a new
+ * token and retires the old one; presenting a retired token again revokes
+ * the whole family, since it means the token was copied.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${jwt.refresh-expiration-ms}")
+    private long refreshExpirationMs;
+
+    @Value("${jwt.revocation.purge-batch-size:1000}")
+    private int purgeBatchSize;
+
+    /** A freshly issued refresh token together with the user it belongs to. */
+    public static class Grant {
+        private final Long userId;
+        private final String token;
+
+        public Grant(Long userId, String token) {
+            this.userId = userId;
+            this.token = token;
+        }
+
+        public Long getUserId() { return userId; }
+        public String getToken() { return token; }
+    }
+
+    @Transactional
+    public String issue(Long userId) {
+        return create(userId, UUID.randomUUID());
+    }
+
+    /**
+     * @return the rotated grant, or empty if the token is unknown, expired or already used
+     */
+    @Transactional
+    public Optional<Grant> rotate(String token) {
+        Optional<RefreshToken> found = refreshTokenRepository.findByTokenHash(TokenDigests.sha256(token));
+        if (found.isEmpty()) return Optional.empty();
+
+        RefreshToken current = found.get();
+        LocalDateTime now = LocalDateTime.now();
+        if (current.getRevokedAt() != null) {
+            // reuse of a rotated token: cut off every token descended from the same login
+            refreshTokenRepository.revokeFamily(current.getFamilyId(), now);
+            return Optional.empty();
+        }
+        if (current.getExpiresAt().isBefore(now)) return Optional.empty();
+
+        current.setRevokedAt(now);
+        String next = create(current.getUserId(), current.getFamilyId());
+        return Optional.of(new Grant(current.getUserId(), next));
+    }
+
+    @Transactional
+    public void revoke(String token) {
+        refreshTokenRepository.findByTokenHash(TokenDigests.sha256(token))
+                .ifPresent(rt -> refreshTokenRepository.revokeFamily(rt.getFamilyId(), LocalDateTime.now()));
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval-ms:3600000}",
+            initialDelayString = "${jwt.revocation.purge-initial-delay-ms:60000}")
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now();
+        int deleted;
+        do {
+            deleted = refreshTokenRepository.deleteExpiredBatch(cutoff, purgeBatchSize);
+        } while (deleted >= purgeBatchSize);
+    }
+
+    private String create(Long userId, UUID familyId) {
+        byte[] raw = new byte[32];
+        RANDOM.nextBytes(raw);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+
+        RefreshToken rt = new RefreshToken();
+        rt.setUserId(userId);
+        rt.setTokenHash(TokenDigests.sha256(token));
+        rt.setFamilyId(familyId);
+        rt.setExpiresAt(LocalDateTime.now().plus(Duration.ofMillis(refreshExpirationMs)));
+        refreshTokenRepository.save(rt);
+        return token;
+    }
+}
@@ -0,0 +1,49 @@
+package com.app.ExpenseTracker.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory set of revoked token digests. Each entry remembers when the
+ * underlying JWT expires so it can be dropped once the token would be
+ * rejected on its own anyway.
+ */
+@Component
+public class RevokedTokenIndex {
+
+    // digest (hex) -> token expiry in epoch millis
+    private final Map<String, Long> entries = new ConcurrentHashMap<>();
+
+    public void add(String digest, long expiresAtMillis) {
+        if (expiresAtMillis > System.currentTimeMillis()) {
+            entries.put(digest, expiresAtMillis);
+        }
+    }
+
+    public boolean mightContain(String digest) {
+        Long expiresAt = entries.get(digest);
+        if (expiresAt == null) return false;
+        if (expiresAt <= System.currentTimeMillis()) {
+            entries.remove(digest, expiresAt);
+            return false;
+        }
+        return true;
+    }
+
+    public void remove(String digest) {
+        entries.remove(digest);
+    }
+
+    public int evictExpired() {
+        long now = System.currentTimeMillis();
+        int before = entries.size();
+        entries.values().removeIf(expiresAt -> expiresAt <= now);
+        return before - entries.size();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,201 @@
+package com.app.ExpenseTracker.service;
+
+import com.app.ExpenseTracker.config.WorkerThreads;
+import com.app.ExpenseTracker.dto.RollupBucketDTO;
+import com.app.ExpenseTracker.entity.Category;
+import com.app.ExpenseTracker.entity.SpendingRollup;
+import com.app.ExpenseTracker.entity.TransactionEntity;
+import com.app.ExpenseTracker.repository.CategoryRepository;
+import com.app.ExpenseTracker.repository.SpendingRollupRepository;
+import com.app.ExpenseTracker.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains {@code spending_rollups}: sum and count of transactions per
+ * (user, month, category, type). Write paths push deltas in the same
+ * transaction as the row change, so summaries never scan transactions.
+ */
+@Service
+public class SpendingRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(SpendingRollupService.class);
+
+    @Autowired private SpendingRollupRepository rollupRepository;
+    @Autowired private CategoryRepository categoryRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @Value("${rollups.rebuild-parallelism:4}")
+    private int rebuildParallelism;
+
+    @Value("${rollups.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    /** Running sum/count for one bucket while aggregating a multi-row write. */
+    public static class Delta {
+        private BigDecimal total = BigDecimal.ZERO;
+        private long count;
+
+        public void add(BigDecimal amount, long n) {
+            total = total.add(amount);
+            count += n;
+        }
+
+        public BigDecimal getTotal() { return total; }
+        public long getCount() { return count; }
+    }
+
+    public static SpendingRollup.Key keyOf(Long userId, Instant txnDate, Long categoryId, String type) {
+        // txn_date is stored as local wall-clock time, so bucket by the same zone the database sees
+        LocalDate month = LocalDate.ofInstant(txnDate == null ? Instant.now() : txnDate, ZoneId.systemDefault())
+                .withDayOfMonth(1);
+        return new SpendingRollup.Key(userId, month,
+                categoryId == null ? SpendingRollup.NO_CATEGORY : categoryId,
+                type == null ? "UNKNOWN" : type.toUpperCase(Locale.ROOT));
+    }
+
+    public static SpendingRollup.Key keyOf(TransactionEntity t) {
+        return keyOf(t.getUser().getId(), t.getTxnDate(),
+                t.getCategory() == null ? null : t.getCategory().getId(), t.getType());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onCreated(TransactionEntity t) {
+        apply(keyOf(t), t.getAmount(), 1);
+    }
+
+    /**
+     * @param oldKey    bucket the row counted towards before the update
+     * @param oldAmount amount of the row before the update
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onUpdated(SpendingRollup.Key oldKey, BigDecimal oldAmount, TransactionEntity t) {
+        SpendingRollup.Key newKey = keyOf(t);
+        if (newKey.equals(oldKey) && t.getAmount().compareTo(oldAmount) == 0) return;
+        apply(oldKey, oldAmount.negate(), -1);
+        apply(newKey, t.getAmount(), 1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onDeleted(TransactionEntity t) {
+        apply(keyOf(t), t.getAmount().negate(), -1);
+    }
+
+    /** Applies the aggregated deltas of a multi-row write, one upsert per bucket. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyAll(Map<SpendingRollup.Key, Delta> deltas) {
+        deltas.forEach((key, d) -> apply(key, d.getTotal(), d.getCount()));
+    }
+
+    /** Moves a deleted category's buckets to the "no category" bucket. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onCategoryDeleted(Long userId, Long categoryId) {
+        rollupRepository.lockUserShared(userId);
+        rollupRepository.mergeCategory(userId, categoryId, SpendingRollup.NO_CATEGORY);
+        rollupRepository.deleteCategory(userId, categoryId);
+    }
+
+    private void apply(SpendingRollup.Key key, BigDecimal total, long count) {
+        if (total == null) return;
+        rollupRepository.addDelta(key.getUserId(), key.getMonth(), key.getCategoryId(), key.getType(), total, count);
+    }
+
+    public List<RollupBucketDTO> summary(Long userId, YearMonth from, YearMonth to) {
+        List<SpendingRollup> rows = rollupRepository.findBuckets(userId, from.atDay(1), to.atDay(1));
+        Set<Long> categoryIds = rows.stream().map(SpendingRollup::getCategoryId)
+                .filter(id -> id != SpendingRollup.NO_CATEGORY).collect(Collectors.toSet());
+        Map<Long, String> names = categoryRepository.findAllById(categoryIds).stream()
+                .collect(Collectors.toMap(Category::getId, Category::getName));
+        return rows.stream().map(r -> {
+            RollupBucketDTO dto = new RollupBucketDTO();
+            dto.setMonth(YearMonth.from(r.getMonth()).toString());
+            dto.setCategoryId(r.getCategoryId() == SpendingRollup.NO_CATEGORY ? null : r.getCategoryId());
+            dto.setCategoryName(names.get(r.getCategoryId()));
+            dto.setType(r.getType());
+            dto.setTotal(r.getTotal());
+            dto.setCount(r.getTxnCount());
+            return dto;
+        }).collect(Collectors.toList());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (rebuildOnStartup) rebuildAll();
+    }
+
+    /**
+     * Recomputes every user's buckets from the transactions table, one user per
+     * transaction and several users in parallel. Used for backfill and repair.
+     * A user whose rebuild fails keeps the buckets it had; the others still run,
+     * and the failed user ids are logged once all rebuilds have finished.
+     */
+    public void rebuildAll() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        ExecutorService pool = WorkerThreads.fixedPool(rebuildParallelism, "rollup-rebuild-", virtualThreads);
+        Map<Long, Future<?>> pending = new LinkedHashMap<>();
+        List<Long> failed = new ArrayList<>();
+        try {
+            for (Long userId : userRepository.findAllIds()) {
+                pending.put(userId, pool.submit(() -> tx.executeWithoutResult(status -> {
+                    // the lock first: delete and insert then read what the user's writers committed
+                    rollupRepository.lockUserExclusive(userId);
+                    rollupRepository.deleteUser(userId);
+                    rollupRepository.rebuildUser(userId);
+                })));
+            }
+            for (Map.Entry<Long, Future<?>> e : pending.entrySet()) {
+                try {
+                    e.getValue().get();
+                } catch (ExecutionException ex) {
+                    failed.add(e.getKey());
+                    log.warn("Spending rollup rebuild failed for user {}", e.getKey(), ex.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdown();
+            awaitTermination(pool);
+        }
+        if (!failed.isEmpty()) {
+            log.error("Spending rollup rebuild failed for {} of {} users: {}", failed.size(), pending.size(), failed);
+        } else if (!Thread.currentThread().isInterrupted()) {
+            log.info("Rebuilt spending rollups for {} users", pending.size());
+        }
+    }
+
+    private static void awaitTermination(ExecutorService pool) {
+        try {
+            // every future is done or cancelled by now; this only waits for the threads to wind down
+            if (!pool.awaitTermination(1, TimeUnit.MINUTES)) log.warn("Rollup rebuild workers did not stop");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package com.app.ExpenseTracker.service;
+
+import com.app.ExpenseTracker.config.WorkerThreads;
+import com.app.ExpenseTracker.entity.Account;
+import com.app.ExpenseTracker.entity.Category;
+import com.app.ExpenseTracker.entity.SpendingRollup;
+import com.app.ExpenseTracker.entity.StatementImport;
+import com.app.ExpenseTracker.exception.NotFoundException;
+import com.app.ExpenseTracker.repository.AccountRepository;
+import com.app.ExpenseTracker.repository.StatementImportRepository;
+import com.app.ExpenseTracker.repository.TransactionBulkRepository;
+import com.app.ExpenseTracker.statement.CsvStatementParser;
+import com.app.ExpenseTracker.statement.OfxStatementParser;
+import com.app.ExpenseTracker.statement.StatementParser;
+import com.app.ExpenseTracker.statement.StatementRow;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Imports CSV/OFX bank statements. The upload is spooled to a temp file and
+ * processed in the background: rows stream from the parser into chunks of
+ * {@code statements.batch-size}, each chunk is one multi-row insert that skips
+ * lines already imported, and the account balance and rollups are updated once
+ * for the whole file. Lines that match a row the account already has from
+ * another source (same day, amount and type) are not inserted either, so a
+ * statement overlapping hand-entered transactions does not count them twice.
+ * The lines of one day must be contiguous, as they are in a statement listed
+ * in date order (either direction): identical lines are told apart by counting
+ * them within their day, and those counters are dropped when the day changes.
+ * A file that returns to a day it already left is failed rather than risk
+ * treating a second identical line as a duplicate.
+ * Each instance stamps the imports it holds with a heartbeat; one left
+ * PENDING/RUNNING without a heartbeat for {@code statements.stale-after} died
+ * with its instance and is failed by whichever instance notices first.
+ */
+@Service
+public class StatementImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementImportService.class);
+
+    public static final String SOURCE = "STATEMENT";
+
+    @Autowired private StatementImportRepository importRepository;
+    @Autowired private TransactionBulkRepository bulkRepository;
+    @Autowired private AccountRepository accountRepository;
+    @Autowired private CategoryRegistry categoryRegistry;
+    @Autowired private BalanceService balanceService;
+    @Autowired private SpendingRollupService rollupService;
+
+    private final TransactionTemplate importTx;
+    // progress is committed on its own so it is visible while the import transaction is open
+    private final TransactionTemplate progressTx;
+    private final ExecutorService workers;
+    // imports queued or running on this instance
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    @Value("${statements.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${statements.stale-after:5m}")
+    private Duration staleAfter;
+
+    public StatementImportService(PlatformTransactionManager transactionManager,
+                                  @Value("${statements.workers:2}") int workers,
+                                  @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.importTx = new TransactionTemplate(transactionManager);
+        this.progressTx = new TransactionTemplate(transactionManager);
+        this.progressTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.workers = WorkerThreads.fixedPool(workers, "statement-import-", virtualThreads);
+    }
+
+    /**
+     * Accepts an upload and queues it.
+     *
+     * @param accountId  account the lines belong to; the user's first account when null
+     * @param format     CSV or OFX; guessed from the file name when null
+     * @param dateFormat date pattern of a CSV file, or null to try the common ones
+     */
+    public StatementImport submit(Long userId, Long accountId, String format, String dateFormat,
+                                  MultipartFile file) throws IOException {
+        if (file.isEmpty()) throw new IllegalArgumentException("file is empty");
+        String fmt = format(format, file.getOriginalFilename());
+        StatementParser parser = "OFX".equals(fmt) ? new OfxStatementParser() : new CsvStatementParser(dateFormat);
+        Account account = accountId != null
+                ? ownedAccount(userId, accountId)
+                : accountRepository.findFirstByUserId(userId).orElse(null);
+
+        // the multipart temp file is gone once the request ends
+        Path spool = Files.createTempFile("statement-", ".upload");
+        try {
+            file.transferTo(spool);
+        } catch (IOException ex) {
+            Files.deleteIfExists(spool);
+            throw ex;
+        }
+
+        StatementImport imp = new StatementImport();
+        imp.setUserId(userId);
+        imp.setAccountId(account == null ? null : account.getId());
+        imp.setFilename(file.getOriginalFilename());
+        imp.setFormat(fmt);
+        importRepository.save(imp);
+
+        Long importId = imp.getId();
+        Long acctId = imp.getAccountId();
+        inFlight.add(importId);
+        workers.execute(() -> {
+            try {
+                run(importId, userId, acctId, parser, spool);
+            } finally {
+                inFlight.remove(importId);
+                try {
+                    Files.deleteIfExists(spool);
+                } catch (IOException ex) {
+                    log.warn("Could not delete statement spool file {}", spool, ex);
+                }
+            }
+        });
+        return imp;
+    }
+
+    public StatementImport get(Long userId, Long id) {
+        return importRepository.findByIdAndUserId(id, userId)
+                .orElseThrow(() -> new NotFoundException("Import not found"));
+    }
+
+    public List<StatementImport> recent(Long userId, int limit) {
+        return importRepository.findByUserIdOrderByCreatedAtDesc(userId, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Stamps the imports this instance holds, then fails unfinished imports nobody
+     * has stamped for {@code statements.stale-after}: their instance stopped.
+     */
+    @Scheduled(fixedDelayString = "${statements.heartbeat-ms:30000}")
+    public void heartbeat() {
+        Instant now = Instant.now();
+        List<Long> ids = List.copyOf(inFlight);
+        int n = progressTx.execute(status -> {
+            if (!ids.isEmpty()) importRepository.heartbeat(ids, now);
+            return importRepository.failStale("Interrupted: its instance stopped", now, now.minus(staleAfter));
+        });
+        if (n > 0) log.warn("Marked {} abandoned statement imports as failed", n);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private void run(Long importId, Long userId, Long accountId, StatementParser parser, Path spool) {
+        progressTx.executeWithoutResult(status -> importRepository.updateStatus(importId, StatementImport.RUNNING));
+        ChunkWriter writer = new ChunkWriter(importId, userId, accountId);
+        try (Reader reader = new BufferedReader(new InputStreamReader(Files.newInputStream(spool), StandardCharsets.UTF_8))) {
+            importTx.executeWithoutResult(status -> {
+                writer.category = categoryRegistry.defaultCategory();
+                try {
+                    parser.parse(reader, writer);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                writer.flush();
+                // one balance update, one ledger entry per day and one upsert per rollup bucket for the whole file
+                balanceService.applyDeltas(writer.balanceDeltas);
+                rollupService.applyAll(writer.rollupDeltas);
+            });
+            writer.reportProgress();
+            progressTx.executeWithoutResult(status ->
+                    importRepository.finish(importId, StatementImport.COMPLETED, null, Instant.now()));
+            log.info("Statement import {}: {} read, {} inserted, {} duplicate ({} matching existing rows), {} skipped",
+                    importId, writer.read, writer.inserted, writer.duplicate, writer.matched, writer.skipped);
+        } catch (Exception ex) {
+            Throwable cause = ex instanceof UncheckedIOException u ? u.getCause() : ex;
+            log.warn("Statement import {} failed", importId, cause);
+            // the import transaction rolled back, so nothing from this file was kept
+            progressTx.executeWithoutResult(status -> {
+                importRepository.updateProgress(importId, writer.read, 0, 0, writer.skipped);
+                importRepository.finish(importId, StatementImport.FAILED, cause.getMessage() != null ? cause.getMessage() : cause.toString(), Instant.now());
+            });
+        }
+    }
+
+    /** Buffers parsed rows and writes them a chunk at a time, keeping the file-wide totals. */
+    private final class ChunkWriter implements StatementParser.Sink {
+        private final Long importId;
+        private final Long userId;
+        private final Long accountId;
+        private final List<TransactionBulkRepository.Row> pending = new ArrayList<>();
+        private final List<String> pendingKeys = new ArrayList<>();
+        private Category category;
+
+        // per content key within the current day; cleared when the next day starts
+        private final Map<String, Integer> occurrences = new HashMap<>();
+        private LocalDate currentDay;
+        private final Set<LocalDate> finishedDays = new HashSet<>();
+        // per amount and type within the day being flushed, to pair lines off against rows from other sources
+        private final Map<String, Integer> matchOccurrences = new HashMap<>();
+        private LocalDate matchDay;
+
+        private final BalanceService.Deltas balanceDeltas = new BalanceService.Deltas();
+        private final Map<SpendingRollup.Key, SpendingRollupService.Delta> rollupDeltas = new HashMap<>();
+        private long read, inserted, duplicate, skipped, matched;
+
+        ChunkWriter(Long importId, Long userId, Long accountId) {
+            this.importId = importId;
+            this.userId = userId;
+            this.accountId = accountId;
+        }
+
+        @Override
+        public void row(StatementRow row) {
+            read++;
+            if (!row.getDate().equals(currentDay)) {
+                if (currentDay != null) finishedDays.add(currentDay);
+                if (finishedDays.contains(row.getDate())) {
+                    throw new IllegalArgumentException("Statement is not in date order: "
+                            + row.getDate() + " appears again after " + currentDay);
+                }
+                currentDay = row.getDate();
+                occurrences.clear();
+            }
+            int occurrence = row.hasExternalId() ? 0 : occurrences.merge(row.contentKey(), 1, Integer::sum);
+            TransactionBulkRepository.Row r = new TransactionBulkRepository.Row();
+            r.setUserId(userId);
+            r.setAccountId(accountId);
+            r.setCategoryId(category.getId());
+            r.setMerchant(row.getMerchant());
+            r.setAmount(row.getAmount());
+            r.setCurrency(row.getCurrency());
+            r.setTxnDate(row.getDate().atStartOfDay());
+            r.setType(row.getType());
+            r.setSource(SOURCE);
+            r.setImportHash(row.importHash(accountId, occurrence));
+            pending.add(r);
+            pendingKeys.add(row.matchKey());
+            if (pending.size() >= batchSize) flush();
+        }
+
+        @Override
+        public void skipped(long recordNumber, String reason) {
+            skipped++;
+            log.debug("Statement import {}: record {} skipped: {}", importId, recordNumber, reason);
+        }
+
+        void flush() {
+            if (pending.isEmpty()) return;
+            List<TransactionBulkRepository.Row> fresh = withoutExisting();
+            List<TransactionBulkRepository.Inserted> rows = bulkRepository.insertIgnoringDuplicates(fresh);
+            for (TransactionBulkRepository.Inserted t : rows) {
+                balanceDeltas.add(t.getAccountId(), t.getTxnDate(), BalanceService.signedAmount(t.getType(), t.getAmount()));
+                Instant txnDate = t.getTxnDate().atZone(ZoneId.systemDefault()).toInstant();
+                rollupDeltas.computeIfAbsent(SpendingRollupService.keyOf(userId, txnDate, t.getCategoryId(), t.getType()),
+                        k -> new SpendingRollupService.Delta()).add(t.getAmount(), 1);
+            }
+            inserted += rows.size();
+            duplicate += pending.size() - rows.size();
+            pending.clear();
+            pendingKeys.clear();
+            reportProgress();
+        }
+
+        /**
+         * Drops the pending lines that pair off with a row the account already has
+         * from another source. The n-th line of a day, amount and type in this file
+         * matches when the account has at least n such rows, so a re-import pairs
+         * off the same lines again. Pending lines are in file order, so the counters
+         * only ever cover one day.
+         */
+        private List<TransactionBulkRepository.Row> withoutExisting() {
+            LocalDate from = null, to = null;
+            for (TransactionBulkRepository.Row r : pending) {
+                LocalDate day = r.getTxnDate().toLocalDate();
+                if (from == null || day.isBefore(from)) from = day;
+                if (to == null || day.isAfter(to)) to = day;
+            }
+            Map<String, Integer> existing = new HashMap<>();
+            for (TransactionBulkRepository.DayCount c : bulkRepository.countByDay(userId, accountId, from, to, SOURCE)) {
+                existing.merge(StatementRow.matchKey(c.getDay(), c.getAmount(), c.getType()), c.getCount(), Integer::sum);
+            }
+            List<TransactionBulkRepository.Row> fresh = new ArrayList<>(pending.size());
+            for (int i = 0; i < pending.size(); i++) {
+                LocalDate day = pending.get(i).getTxnDate().toLocalDate();
+                if (!day.equals(matchDay)) {
+                    matchDay = day;
+                    matchOccurrences.clear();
+                }
+                String key = pendingKeys.get(i);
+                int n = matchOccurrences.merge(key, 1, Integer::sum);
+                if (n > existing.getOrDefault(key, 0)) fresh.add(pending.get(i));
+            }
+            matched += pending.size() - fresh.size();
+            return fresh;
+        }
+
+        void reportProgress() {
+            progressTx.executeWithoutResult(status ->
+                    importRepository.updateProgress(importId, read, inserted, duplicate, skipped));
+        }
+    }
+
+    private static String format(String format, String filename) {
+        if (format != null && !format.isBlank()) {
+            String f = format.trim().toUpperCase(Locale.ROOT);
+            if (!f.equals("CSV") && !f.equals("OFX")) throw new IllegalArgumentException("format must be csv or ofx");
+            return f;
+        }
+        String name = filename == null ? "" : filename.toLowerCase(Locale.ROOT);
+        return name.endsWith(".ofx") || name.endsWith(".qfx") ? "OFX" : "CSV";
+    }
+
+    private Account ownedAccount(Long userId, Long accountId) {
+        Account acc = accountRepository.findById(accountId)
+                .orElseThrow(() -> new NotFoundException("Account not found"));
+        if (!acc.getUser().getId().equals(userId)) throw new NotFoundException("Account not found");
+        return acc;
+    }
+}
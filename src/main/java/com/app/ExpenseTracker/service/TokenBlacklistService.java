@@ -2,50 +2,148 @@ package com.app.ExpenseTracker.service;
 
 import com.app.ExpenseTracker.entity.RevokedToken;
 import com.app.ExpenseTracker.repository.RevokedTokenRepository;
-import com.auth0.jwt.JWT;
-import com.auth0.jwt.algorithms.Algorithm;
+import com.app.ExpenseTracker.security.TokenDigests;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Date;
 
+/**
+ * Revoked access tokens. Requests are answered from the in-memory
+ * {@link RevokedTokenIndex} and only an index hit is confirmed against the
+ * database. Every instance fills its index from {@code revoked_tokens} before
+ * the web server starts and then polls for rows revoked since, so a logout on
+ * one instance is honoured by the others within {@code jwt.revocation.sync-ms}.
+ */
 @Service
-public class TokenBlacklistService {
+public class TokenBlacklistService implements SmartInitializingSingleton {
 
     @Autowired
     private RevokedTokenRepository revokedTokenRepository;
 
-    @Value("${jwt.secret}")
-    private String secret;
+    private final RevokedTokenIndex revokedTokenIndex;
 
-    private Algorithm algorithm() {
-        return Algorithm.HMAC256(secret.getBytes());
+    @Value("${jwt.revocation.purge-batch-size:1000}")
+    private int purgeBatchSize;
+
+    // re-reads a little before the last sync: rows are stamped before they commit, and clocks drift
+    @Value("${jwt.revocation.sync-overlap:1m}")
+    private Duration syncOverlap;
+
+    private volatile LocalDateTime lastSync;
+
+    private final Counter indexHits;
+    private final Counter indexMisses;
+    private final Counter falsePositives;
+
+    public TokenBlacklistService(RevokedTokenIndex revokedTokenIndex, MeterRegistry meterRegistry) {
+        this.revokedTokenIndex = revokedTokenIndex;
+        this.indexHits = Counter.builder("auth.revocation.index")
+                .tag("result", "hit")
+                .description("Lookups that found the token in the local revocation index")
+                .register(meterRegistry);
+        this.indexMisses = Counter.builder("auth.revocation.index")
+                .tag("result", "miss")
+                .description("Lookups answered locally without touching the database")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("auth.revocation.index")
+                .tag("result", "false_positive")
+                .description("Index hits the database did not confirm")
+                .register(meterRegistry);
+        Gauge.builder("auth.revocation.index.size", revokedTokenIndex, RevokedTokenIndex::size)
+                .register(meterRegistry);
     }
 
+    /**
+     * @param decoded a token already verified by {@link com.app.ExpenseTracker.security.JwtUtil#verify}
+     */
     @Transactional
-    public void revokeToken(String token) {
-        try {
-            DecodedJWT decoded = JWT.require(algorithm()).build().verify(token);
-            Date expiresAt = decoded.getExpiresAt();
-            LocalDateTime expiresAtLocal = Instant.ofEpochMilli(expiresAt.getTime())
-                    .atZone(ZoneId.systemDefault())
-                    .toLocalDateTime();
-
-            RevokedToken revokedToken = new RevokedToken(token, expiresAtLocal);
-            revokedTokenRepository.save(revokedToken);
-        } catch (Exception e) {
-            // If token is invalid or expired, we don't need to blacklist it
-            // Just ignore
+    public void revokeToken(DecodedJWT decoded) {
+        byte[] digest = TokenDigests.sha256(decoded.getToken());
+        Date expiresAt = decoded.getExpiresAt();
+        LocalDateTime expiresAtLocal = Instant.ofEpochMilli(expiresAt.getTime())
+                .atZone(ZoneId.systemDefault())
+                .toLocalDateTime();
+
+        RevokedToken revokedToken = new RevokedToken(digest, expiresAtLocal);
+        revokedTokenRepository.save(revokedToken);
+        revokedTokenIndex.add(TokenDigests.hex(digest), expiresAt.getTime());
+    }
+
+    public boolean isTokenRevoked(DecodedJWT decoded) {
+        byte[] hash = TokenDigests.sha256(decoded.getToken());
+        String digest = TokenDigests.hex(hash);
+        if (!revokedTokenIndex.mightContain(digest)) {
+            indexMisses.increment();
+            return false;
+        }
+        indexHits.increment();
+        // only a local hit pays for the round trip; it confirms the row still exists
+        boolean revoked = revokedTokenRepository.existsByTokenHash(hash);
+        if (!revoked) {
+            falsePositives.increment();
+            revokedTokenIndex.remove(digest);
         }
+        return revoked;
+    }
+
+    /** Runs before the web server starts, so no request is checked against an empty index. */
+    @Override
+    public void afterSingletonsInstantiated() {
+        loadIndex();
+    }
+
+    public void loadIndex() {
+        LocalDateTime now = LocalDateTime.now();
+        addAll(revokedTokenRepository.findByExpiresAtAfter(now));
+        lastSync = now;
+    }
+
+    /** Picks up tokens revoked through other instances since the previous sync. */
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-ms:5000}",
+            initialDelayString = "${jwt.revocation.sync-ms:5000}")
+    public void syncIndex() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = lastSync == null ? LocalDateTime.MIN : lastSync.minus(syncOverlap);
+        addAll(revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(since, now));
+        lastSync = now;
+    }
+
+    private void addAll(Iterable<RevokedToken> rows) {
+        for (RevokedToken rt : rows) {
+            long expiresAt = rt.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            revokedTokenIndex.add(TokenDigests.hex(rt.getTokenHash()), expiresAt);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.index-sweep-ms:60000}")
+    public void evictExpired() {
+        revokedTokenIndex.evictExpired();
     }
 
-    public boolean isTokenRevoked(String token) {
-        return revokedTokenRepository.findByToken(token).isPresent();
+    /**
+     * Removes expired rows in bounded chunks, each committed separately, so the
+     * purge never holds locks on a large part of the table.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval-ms:3600000}",
+            initialDelayString = "${jwt.revocation.purge-initial-delay-ms:60000}")
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now();
+        int deleted;
+        do {
+            deleted = revokedTokenRepository.deleteExpiredBatch(cutoff, purgeBatchSize);
+        } while (deleted >= purgeBatchSize);
     }
 }
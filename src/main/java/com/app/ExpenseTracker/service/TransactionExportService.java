@@ -0,0 +1,155 @@
+package com.app.ExpenseTracker.service;
+
+import com.app.ExpenseTracker.dto.TransactionResponseDTO;
+import com.app.ExpenseTracker.dto.TransactionSearchCriteria;
+import com.app.ExpenseTracker.repository.TransactionSearchRepository;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Writes a user's transactions straight from a server-side cursor to an output
+ * stream. Rows are fetched {@code export.fetch-size} at a time and written as
+ * they arrive, so memory use does not depend on the size of the history.
+ */
+@Service
+public class TransactionExportService {
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() { return contentType; }
+        public String getExtension() { return extension; }
+
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("format must be csv or ndjson");
+            }
+        }
+    }
+
+    private static final String CSV_HEADER = "id,txn_date,account_id,merchant,amount,currency,type,category_id,category_name,source";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTx;
+    // one object per line; the newline is written explicitly after each row
+    private final JsonFactory jsonFactory = new JsonFactory().setRootValueSeparator(null);
+
+    public TransactionExportService(DataSource dataSource, PlatformTransactionManager transactionManager,
+                                    @Value("${export.fetch-size:1000}") int fetchSize) {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        // pgjdbc only uses a server-side cursor when a fetch size is set and autocommit is off
+        jdbc.setFetchSize(fetchSize);
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(jdbc);
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    public void export(Long userId, TransactionSearchCriteria criteria, Format format, OutputStream out) throws IOException {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = TransactionSearchRepository.SELECT_COLUMNS
+                + "WHERE " + TransactionSearchRepository.where(userId, criteria, params)
+                + " ORDER BY t.txn_date, t.id";
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        JsonGenerator json = format == Format.NDJSON ? jsonFactory.createGenerator(writer) : null;
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        RowCallbackHandler handler = rs -> {
+            TransactionResponseDTO row = TransactionSearchRepository.ROW_MAPPER.mapRow(rs, 0);
+            try {
+                if (json != null) writeJson(json, row);
+                else writeCsv(writer, row);
+            } catch (IOException ex) {
+                // client went away; abort the query rather than reading the rest of the cursor
+                throw new UncheckedIOException(ex);
+            }
+        };
+        try {
+            readOnlyTx.executeWithoutResult(status -> jdbcTemplate.query(sql, params, handler));
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        if (json != null) json.flush();
+        writer.flush();
+    }
+
+    private static void writeJson(JsonGenerator g, TransactionResponseDTO t) throws IOException {
+        g.writeStartObject();
+        g.writeNumberField("id", t.getId());
+        g.writeStringField("txnDate", t.getTxnDate() == null ? null : t.getTxnDate().toString());
+        writeNullableNumber(g, "accountId", t.getAccountId());
+        g.writeStringField("merchant", t.getMerchant());
+        g.writeFieldName("amount");
+        if (t.getAmount() == null) g.writeNull(); else g.writeNumber(t.getAmount());
+        g.writeStringField("currency", t.getCurrency());
+        g.writeStringField("type", t.getType());
+        writeNullableNumber(g, "categoryId", t.getCategoryId());
+        g.writeStringField("categoryName", t.getCategoryName());
+        g.writeStringField("source", t.getSource());
+        g.writeEndObject();
+        g.writeRaw('\n');
+    }
+
+    private static void writeNullableNumber(JsonGenerator g, String field, Long value) throws IOException {
+        g.writeFieldName(field);
+        if (value == null) g.writeNull(); else g.writeNumber(value);
+    }
+
+    private static void writeCsv(Writer w, TransactionResponseDTO t) throws IOException {
+        w.write(String.valueOf(t.getId()));
+        w.write(',');
+        w.write(t.getTxnDate() == null ? "" : t.getTxnDate().toString());
+        w.write(',');
+        w.write(t.getAccountId() == null ? "" : t.getAccountId().toString());
+        w.write(',');
+        w.write(csv(t.getMerchant()));
+        w.write(',');
+        w.write(t.getAmount() == null ? "" : t.getAmount().toPlainString());
+        w.write(',');
+        w.write(csv(t.getCurrency()));
+        w.write(',');
+        w.write(csv(t.getType()));
+        w.write(',');
+        w.write(t.getCategoryId() == null ? "" : t.getCategoryId().toString());
+        w.write(',');
+        w.write(csv(t.getCategoryName()));
+        w.write(',');
+        w.write(csv(t.getSource()));
+        w.write('\n');
+    }
+
+    static String csv(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,15 +1,26 @@
 package com.app.ExpenseTracker.service;
 
+import com.app.ExpenseTracker.dto.CursorPage;
+import com.app.ExpenseTracker.dto.TransactionBulkRequest;
 import com.app.ExpenseTracker.dto.TransactionRequestDTO;
 import com.app.ExpenseTracker.dto.TransactionResponseDTO;
+import com.app.ExpenseTracker.dto.TransactionSearchCriteria;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
+
 public interface TransactionService {
-    TransactionResponseDTO createTransaction(String username, TransactionRequestDTO dto);
-    TransactionResponseDTO getTransaction(String username, Long id);
-    Page<TransactionResponseDTO> listTransactions(String username, Pageable pageable);
-    Page<TransactionResponseDTO> listTransactionsByCategory(String username, Long categoryId, Pageable pageable);
-    TransactionResponseDTO updateTransaction(String username, Long id, TransactionRequestDTO dto);
-    void deleteTransaction(String username, Long id);
+    TransactionResponseDTO createTransaction(Long userId, TransactionRequestDTO dto);
+    List<TransactionResponseDTO> createTransactions(Long userId, List<TransactionRequestDTO> dtos);
+    TransactionResponseDTO getTransaction(Long userId, Long id);
+    Page<TransactionResponseDTO> listTransactions(Long userId, Pageable pageable);
+    Page<TransactionResponseDTO> listTransactionsByCategory(Long userId, Long categoryId, Pageable pageable);
+    CursorPage<TransactionResponseDTO> scrollTransactions(Long userId, String cursor, int size);
+    CursorPage<TransactionResponseDTO> scrollTransactionsByCategory(Long userId, Long categoryId, String cursor, int size);
+    CursorPage<TransactionResponseDTO> searchTransactions(Long userId, TransactionSearchCriteria criteria, String cursor, int size);
+    TransactionResponseDTO updateTransaction(Long userId, Long id, TransactionRequestDTO dto);
+    void deleteTransaction(Long userId, Long id);
+    int recategorizeTransactions(Long userId, TransactionBulkRequest request);
+    int deleteTransactions(Long userId, TransactionBulkRequest request);
 }
@@ -1,14 +1,22 @@
 package com.app.ExpenseTracker.service.impl;
 
 import com.app.ExpenseTracker.dto.AccountDTO;
+import com.app.ExpenseTracker.dto.BalanceDTO;
+import com.app.ExpenseTracker.dto.ReconciliationDTO;
 import com.app.ExpenseTracker.entity.Account;
-import com.app.ExpenseTracker.entity.User;
+import com.app.ExpenseTracker.entity.LedgerEntry;
 import com.app.ExpenseTracker.exception.NotFoundException;
 import com.app.ExpenseTracker.repository.*;
+import com.app.ExpenseTracker.service.AccountResolver;
 import com.app.ExpenseTracker.service.AccountService;
+import com.app.ExpenseTracker.service.BalanceService;
+import com.app.ExpenseTracker.service.LedgerService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -17,58 +25,87 @@ public class AccountServiceImpl implements AccountService {
 
     @Autowired private UserRepository userRepository;
     @Autowired private AccountRepository accountRepository;
+    @Autowired private BalanceService balanceService;
+    @Autowired private LedgerService ledgerService;
+    @Autowired private AccountResolver accountResolver;
 
     @Override
-    public AccountDTO createAccount(String username, AccountDTO dto) {
-        User user = userRepository.findByEmail(username).orElseThrow(() -> new NotFoundException("User not found"));
+    @Transactional
+    public AccountDTO createAccount(Long userId, AccountDTO dto) {
         Account acc = new Account();
-        acc.setUser(user);
+        acc.setUser(userRepository.getReferenceById(userId));
         acc.setName(dto.getName());
         acc.setType(dto.getType());
         acc.setLast4(dto.getLast4());
+        acc.setAliases(aliases(dto.getAliases()));
         acc.setBalanceEstimate(dto.getBalanceEstimate());
         accountRepository.save(acc);
+        balanceService.recordOnly(acc.getId(), dto.getBalanceEstimate(), LedgerEntry.OPENING);
+        accountResolver.changed(userId);
         dto.setId(acc.getId());
         return dto;
     }
 
     @Override
-    public AccountDTO updateAccount(String username, Long id, AccountDTO dto) {
-        User user = userRepository.findByEmail(username).orElseThrow(() -> new NotFoundException("User not found"));
-        Account acc = accountRepository.findById(id).orElseThrow(() -> new NotFoundException("Account not found"));
-        if (!acc.getUser().getId().equals(user.getId())) throw new NotFoundException("Account not found");
+    @Transactional
+    public AccountDTO updateAccount(Long userId, Long id, AccountDTO dto) {
+        // locked so a concurrent delta cannot slip in between reading and overwriting the balance
+        Account acc = accountRepository.findByIdForUpdate(id).orElseThrow(() -> new NotFoundException("Account not found"));
+        if (!acc.getUser().getId().equals(userId)) throw new NotFoundException("Account not found");
+        BigDecimal before = acc.getBalanceEstimate() == null ? BigDecimal.ZERO : acc.getBalanceEstimate();
+        BigDecimal after = dto.getBalanceEstimate() == null ? BigDecimal.ZERO : dto.getBalanceEstimate();
         acc.setName(dto.getName());
         acc.setType(dto.getType());
         acc.setLast4(dto.getLast4());
+        acc.setAliases(aliases(dto.getAliases()));
         acc.setBalanceEstimate(dto.getBalanceEstimate());
         accountRepository.save(acc);
+        balanceService.recordOnly(acc.getId(), after.subtract(before), LedgerEntry.ADJUSTMENT);
+        accountResolver.changed(userId);
         dto.setId(acc.getId());
         return dto;
     }
 
     @Override
-    public AccountDTO getAccount(String username, Long id) {
-        User user = userRepository.findByEmail(username).orElseThrow(() -> new NotFoundException("User not found"));
+    public AccountDTO getAccount(Long userId, Long id) {
         Account acc = accountRepository.findById(id).orElseThrow(() -> new NotFoundException("Account not found"));
-        if (!acc.getUser().getId().equals(user.getId())) throw new NotFoundException("Account not found");
+        if (!acc.getUser().getId().equals(userId)) throw new NotFoundException("Account not found");
         return toDto(acc);
     }
 
     @Override
-    public java.util.List<AccountDTO> listAccounts(String username) {
-        User user = userRepository.findByEmail(username).orElseThrow(() -> new NotFoundException("User not found"));
-        return accountRepository.findByUserId(user.getId())
+    public java.util.List<AccountDTO> listAccounts(Long userId) {
+        return accountRepository.findByUserId(userId)
                 .stream()
                 .map(this::toDto)
                 .collect(Collectors.toList());
     }
 
     @Override
-    public void deleteAccount(String username, Long id) {
-        User user = userRepository.findByEmail(username).orElseThrow(() -> new NotFoundException("User not found"));
+    public void deleteAccount(Long userId, Long id) {
         Account acc = accountRepository.findById(id).orElseThrow(() -> new NotFoundException("Account not found"));
-        if (!acc.getUser().getId().equals(user.getId())) throw new NotFoundException("Account not found");
+        if (!acc.getUser().getId().equals(userId)) throw new NotFoundException("Account not found");
         accountRepository.delete(acc);
+        accountResolver.changed(userId);
+    }
+
+    @Override
+    public BalanceDTO getBalanceAt(Long userId, Long id, Instant at) {
+        Account acc = accountRepository.findById(id).orElseThrow(() -> new NotFoundException("Account not found"));
+        if (!acc.getUser().getId().equals(userId)) throw new NotFoundException("Account not found");
+        return new BalanceDTO(acc.getId(), at, ledgerService.balanceAt(acc.getId(), at));
+    }
+
+    @Override
+    public ReconciliationDTO reconcile(Long userId, Long id) {
+        Account acc = accountRepository.findById(id).orElseThrow(() -> new NotFoundException("Account not found"));
+        if (!acc.getUser().getId().equals(userId)) throw new NotFoundException("Account not found");
+        BigDecimal estimate = acc.getBalanceEstimate() == null ? BigDecimal.ZERO : acc.getBalanceEstimate();
+        return new ReconciliationDTO(acc.getId(), estimate, ledgerService.ledgerBalance(acc.getId()));
+    }
+
+    private static String[] aliases(List<String> aliases) {
+        return aliases == null ? null : aliases.stream().map(String::trim).distinct().toArray(String[]::new);
     }
 
     private AccountDTO toDto(Account acc) {
@@ -77,6 +114,7 @@ public class AccountServiceImpl implements AccountService {
         dto.setName(acc.getName());
         dto.setType(acc.getType());
         dto.setLast4(acc.getLast4());
+        dto.setAliases(acc.getAliases() == null ? null : List.of(acc.getAliases()));
         dto.setBalanceEstimate(acc.getBalanceEstimate());
         return dto;
     }
@@ -2,13 +2,14 @@ package com.app.ExpenseTracker.service.impl;
 
 import com.app.ExpenseTracker.dto.CategoryDTO;
 import com.app.ExpenseTracker.entity.Category;
-import com.app.ExpenseTracker.entity.User;
 import com.app.ExpenseTracker.exception.NotFoundException;
 import com.app.ExpenseTracker.repository.CategoryRepository;
-import com.app.ExpenseTracker.repository.UserRepository;
+import com.app.ExpenseTracker.service.CategoryRegistry;
 import com.app.ExpenseTracker.service.CategoryService;
+import com.app.ExpenseTracker.service.SpendingRollupService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -17,55 +18,56 @@ import java.util.stream.Collectors;
 public class CategoryServiceImpl implements CategoryService {
 
     @Autowired private CategoryRepository categoryRepository;
-    @Autowired private UserRepository userRepository;
+    @Autowired private SpendingRollupService rollupService;
+    @Autowired private CategoryRegistry categoryRegistry;
 
     @Override
-    public CategoryDTO createCategory(String username, CategoryDTO dto) {
-        User user = userRepository.findByEmail(username).orElseThrow(() -> new NotFoundException("User not found"));
+    public CategoryDTO createCategory(Long userId, CategoryDTO dto) {
         Category c = new Category();
-        c.setUserId(user.getId());
+        c.setUserId(userId);
         c.setName(dto.getName());
         c.setParent(dto.getParent());
         categoryRepository.save(c);
+        categoryRegistry.saved(c);
         dto.setId(c.getId());
         return dto;
     }
 
     @Override
-    public List<CategoryDTO> listCategories(String username) {
-        User user = userRepository.findByEmail(username).orElseThrow(() -> new NotFoundException("User not found"));
-        return categoryRepository.findByUserId(user.getId())
+    public List<CategoryDTO> listCategories(Long userId) {
+        return categoryRepository.findByUserId(userId)
                 .stream()
                 .map(this::toDto)
                 .collect(Collectors.toList());
     }
 
     @Override
-    public CategoryDTO getCategory(String username, Long id) {
-        User user = userRepository.findByEmail(username).orElseThrow(() -> new NotFoundException("User not found"));
+    public CategoryDTO getCategory(Long userId, Long id) {
         Category c = categoryRepository.findById(id).orElseThrow(() -> new NotFoundException("Category not found"));
-        if (c.getUserId() == null || !c.getUserId().equals(user.getId())) throw new NotFoundException("Category not found");
+        if (c.getUserId() == null || !c.getUserId().equals(userId)) throw new NotFoundException("Category not found");
         return toDto(c);
     }
 
     @Override
-    public CategoryDTO updateCategory(String username, Long id, CategoryDTO dto) {
-        User user = userRepository.findByEmail(username).orElseThrow(() -> new NotFoundException("User not found"));
+    public CategoryDTO updateCategory(Long userId, Long id, CategoryDTO dto) {
         Category c = categoryRepository.findById(id).orElseThrow(() -> new NotFoundException("Category not found"));
-        if (c.getUserId() == null || !c.getUserId().equals(user.getId())) throw new NotFoundException("Category not found");
+        if (c.getUserId() == null || !c.getUserId().equals(userId)) throw new NotFoundException("Category not found");
         c.setName(dto.getName());
         c.setParent(dto.getParent());
         categoryRepository.save(c);
+        categoryRegistry.saved(c);
         dto.setId(c.getId());
         return dto;
     }
 
     @Override
-    public void deleteCategory(String username, Long id) {
-        User user = userRepository.findByEmail(username).orElseThrow(() -> new NotFoundException("User not found"));
+    @Transactional
+    public void deleteCategory(Long userId, Long id) {
         Category c = categoryRepository.findById(id).orElseThrow(() -> new NotFoundException("Category not found"));
-        if (c.getUserId() == null || !c.getUserId().equals(user.getId())) throw new NotFoundException("Category not found");
+        if (c.getUserId() == null || !c.getUserId().equals(userId)) throw new NotFoundException("Category not found");
         categoryRepository.delete(c);
+        rollupService.onCategoryDeleted(userId, id);
+        categoryRegistry.deleted(userId, id);
     }
 
     private CategoryDTO toDto(Category c) {
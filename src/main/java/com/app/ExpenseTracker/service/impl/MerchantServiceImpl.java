@@ -0,0 +1,34 @@
+package com.app.ExpenseTracker.service.impl;
+
+import com.app.ExpenseTracker.dto.TransactionResponseDTO;
+import com.app.ExpenseTracker.repository.MerchantSearchRepository;
+import com.app.ExpenseTracker.service.MerchantService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+public class MerchantServiceImpl implements MerchantService {
+
+    @Autowired private MerchantSearchRepository merchantSearchRepository;
+
+    // pg_trgm's default of 0.3 misses abbreviations such as "amzn" -> "amazon"
+    @Value("${search.merchant.similarity-threshold:0.2}")
+    private double similarityThreshold;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TransactionResponseDTO> searchTransactions(Long userId, String query, int limit) {
+        if (query == null || query.isBlank()) throw new IllegalArgumentException("q must not be blank");
+        return merchantSearchRepository.searchSimilar(userId, query.trim(), similarityThreshold, limit);
+    }
+
+    @Override
+    public List<String> suggestMerchants(Long userId, String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) return List.of();
+        return merchantSearchRepository.suggest(userId, prefix.trim(), limit);
+    }
+}
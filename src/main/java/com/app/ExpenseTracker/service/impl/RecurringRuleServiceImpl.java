@@ -0,0 +1,140 @@
+package com.app.ExpenseTracker.service.impl;
+
+import com.app.ExpenseTracker.dto.RecurringRuleDTO;
+import com.app.ExpenseTracker.entity.Account;
+import com.app.ExpenseTracker.entity.RecurringRule;
+import com.app.ExpenseTracker.exception.NotFoundException;
+import com.app.ExpenseTracker.repository.AccountRepository;
+import com.app.ExpenseTracker.repository.RecurringRuleRepository;
+import com.app.ExpenseTracker.service.CategoryRegistry;
+import com.app.ExpenseTracker.service.RecurringRuleService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+@Service
+public class RecurringRuleServiceImpl implements RecurringRuleService {
+
+    @Autowired private RecurringRuleRepository ruleRepository;
+    @Autowired private AccountRepository accountRepository;
+    @Autowired private CategoryRegistry categoryRegistry;
+
+    @Override
+    public RecurringRuleDTO createRule(Long userId, RecurringRuleDTO dto) {
+        RecurringRule r = new RecurringRule();
+        r.setUserId(userId);
+        if (dto.getAccountId() != null) {
+            r.setAccountId(ownedAccount(userId, dto.getAccountId()).getId());
+        } else {
+            accountRepository.findFirstByUserId(userId).ifPresent(a -> r.setAccountId(a.getId()));
+        }
+        r.setCategoryId(dto.getCategoryId() != null
+                ? categoryRegistry.get(userId, dto.getCategoryId()).getId()
+                : categoryRegistry.defaultCategory().getId());
+        apply(r, dto);
+        r.setNextRunAt(firstRun(r.getCadence(), dto.getStartAt(), r.getEndAt()));
+        ruleRepository.save(r);
+        return toDto(r);
+    }
+
+    @Override
+    public List<RecurringRuleDTO> listRules(Long userId) {
+        return ruleRepository.findByUserIdOrderByNextRunAt(userId).stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public RecurringRuleDTO getRule(Long userId, Long id) {
+        return toDto(ownedRule(userId, id));
+    }
+
+    @Override
+    @Transactional
+    public RecurringRuleDTO updateRule(Long userId, Long id, RecurringRuleDTO dto) {
+        RecurringRule r = ownedRule(userId, id);
+        if (dto.getAccountId() != null) r.setAccountId(ownedAccount(userId, dto.getAccountId()).getId());
+        if (dto.getCategoryId() != null) r.setCategoryId(categoryRegistry.get(userId, dto.getCategoryId()).getId());
+        String oldCadence = r.getCadence();
+        boolean wasActive = r.isActive();
+        apply(r, dto);
+        // a new cadence or start restarts the schedule; otherwise occurrences continue where they were
+        if (!r.getCadence().equals(oldCadence) || dto.getStartAt() != null) {
+            r.setNextRunAt(firstRun(r.getCadence(), dto.getStartAt(), r.getEndAt()));
+        } else if (r.isActive() && (!wasActive || r.getNextRunAt().isBefore(LocalDateTime.now()))) {
+            // a paused or ended rule resumes from now: the time it was off is not booked afterwards.
+            // Catching up on missed occurrences is only for rules the generator fell behind on.
+            r.setNextRunAt(firstRun(r.getCadence(), null, r.getEndAt()));
+        }
+        ruleRepository.save(r);
+        return toDto(r);
+    }
+
+    @Override
+    public void deleteRule(Long userId, Long id) {
+        ruleRepository.delete(ownedRule(userId, id));
+    }
+
+    private static void apply(RecurringRule r, RecurringRuleDTO dto) {
+        r.setMerchant(dto.getMerchant());
+        r.setAmount(dto.getAmount());
+        r.setCurrency(dto.getCurrency());
+        r.setType(dto.getType() == null ? "DEBIT" : dto.getType().toUpperCase(Locale.ROOT));
+        r.setCadence(dto.getCadence().trim());
+        r.setEndAt(dto.getEndAt());
+        if (dto.getActive() != null) r.setActive(dto.getActive());
+    }
+
+    /** First cadence time at or after {@code startAt} (default now). */
+    static LocalDateTime firstRun(String cadence, LocalDateTime startAt, LocalDateTime endAt) {
+        CronExpression cron;
+        try {
+            cron = CronExpression.parse(cadence);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cadence: " + ex.getMessage());
+        }
+        LocalDateTime from = (startAt == null ? LocalDateTime.now() : startAt).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime first = cron.next(from.minusSeconds(1));
+        if (first == null || (endAt != null && first.isAfter(endAt))) {
+            throw new IllegalArgumentException("cadence has no occurrence before endAt");
+        }
+        return first;
+    }
+
+    private RecurringRule ownedRule(Long userId, Long id) {
+        RecurringRule r = ruleRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Recurring rule not found"));
+        if (!r.getUserId().equals(userId)) throw new NotFoundException("Recurring rule not found");
+        return r;
+    }
+
+    private Account ownedAccount(Long userId, Long accountId) {
+        Account acc = accountRepository.findById(accountId)
+                .orElseThrow(() -> new NotFoundException("Account not found"));
+        if (!acc.getUser().getId().equals(userId)) throw new NotFoundException("Account not found");
+        return acc;
+    }
+
+    private RecurringRuleDTO toDto(RecurringRule r) {
+        RecurringRuleDTO dto = new RecurringRuleDTO();
+        dto.setId(r.getId());
+        dto.setAccountId(r.getAccountId());
+        dto.setCategoryId(r.getCategoryId());
+        dto.setMerchant(r.getMerchant());
+        dto.setAmount(r.getAmount());
+        dto.setCurrency(r.getCurrency());
+        dto.setType(r.getType());
+        dto.setCadence(r.getCadence());
+        dto.setEndAt(r.getEndAt());
+        dto.setActive(r.isActive());
+        dto.setNextRunAt(r.getNextRunAt());
+        return dto;
+    }
+}
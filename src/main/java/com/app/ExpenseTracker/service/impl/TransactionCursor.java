@@ -0,0 +1,41 @@
+package com.app.ExpenseTracker.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Position after the last row of a slice ordered by (txn_date desc, id desc),
+ * encoded as an opaque URL-safe string.
+ */
+final class TransactionCursor {
+
+    private final Instant txnDate;
+    private final Long id;
+
+    TransactionCursor(Instant txnDate, Long id) {
+        this.txnDate = txnDate;
+        this.id = id;
+    }
+
+    Instant getTxnDate() { return txnDate; }
+    Long getId() { return id; }
+
+    String encode() {
+        String raw = txnDate.getEpochSecond() + ":" + txnDate.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static TransactionCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 3) throw new IllegalArgumentException("Invalid cursor");
+            Instant txnDate = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new TransactionCursor(txnDate, Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | java.time.DateTimeException ex) {
+            // NumberFormatException is an IllegalArgumentException too
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -4,13 +4,22 @@ import com.app.ExpenseTracker.dto.*;
 import com.app.ExpenseTracker.entity.*;
 import com.app.ExpenseTracker.exception.NotFoundException;
 import com.app.ExpenseTracker.repository.*;
+import com.app.ExpenseTracker.service.BalanceService;
+import com.app.ExpenseTracker.service.CategoryRegistry;
+import com.app.ExpenseTracker.service.SpendingRollupService;
 import com.app.ExpenseTracker.service.TransactionService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 public class TransactionServiceImpl implements TransactionService {
@@ -25,20 +34,36 @@ public class TransactionServiceImpl implements TransactionService {
     private AccountRepository accountRepository;
 
     @Autowired
-    private CategoryRepository categoryRepository;
+    private CategoryRegistry categoryRegistry;
+
+    @Autowired
+    private TransactionSearchRepository transactionSearchRepository;
+
+    @Autowired
+    private TransactionBulkRepository transactionBulkRepository;
+
+    @Autowired
+    private BalanceService balanceService;
+
+    @Autowired
+    private SpendingRollupService rollupService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
 
     @Override
-    public TransactionResponseDTO createTransaction(String username, TransactionRequestDTO dto) {
-        User user = userRepository.findByEmail(username).orElseThrow(() -> new NotFoundException("User not found"));
+    @Transactional
+    public TransactionResponseDTO createTransaction(Long userId, TransactionRequestDTO dto) {
         TransactionEntity t = new TransactionEntity();
-        t.setUser(user);
+        t.setUser(userRepository.getReferenceById(userId));
         if (dto.getAccountId() != null) {
-            var acc = accountRepository.findById(dto.getAccountId())
-                    .orElseThrow(() -> new NotFoundException("Account not found"));
-            t.setAccount(acc);
+            t.setAccount(ownedAccount(userId, dto.getAccountId()));
         } else {
             // pick first account as default
-            var accOpt = accountRepository.findFirstByUserId(user.getId());
+            var accOpt = accountRepository.findFirstByUserId(userId);
             accOpt.ifPresent(t::setAccount);
         }
         t.setMerchant(dto.getMerchant());
@@ -46,88 +71,245 @@ public class TransactionServiceImpl implements TransactionService {
         t.setCurrency(dto.getCurrency());
         t.setType(dto.getType());
 
-        Category category;
-        if (dto.getCategoryId() != null) {
-            category = categoryRepository.findById(dto.getCategoryId())
-                    .orElseThrow(() -> new NotFoundException("Category not found"));
-        } else {
-            // Default to global "Uncategorized"
-            category = categoryRepository.findByNameAndUserId("Uncategorized", null)
-                    .orElseThrow(() -> new NotFoundException("Default category not found"));
-        }
-        t.setCategory(category);
+        // Default to global "Uncategorized"
+        t.setCategory(dto.getCategoryId() != null
+                ? categoryRegistry.get(userId, dto.getCategoryId())
+                : categoryRegistry.defaultCategory());
 
         t.setSource(dto.getSource());
         t.setTxnDate(Instant.now());
         transactionRepository.save(t);
+        balanceService.onCreated(t);
+        rollupService.onCreated(t);
+
+        return toDto(t);
+    }
+
+    @Override
+    @Transactional
+    public List<TransactionResponseDTO> createTransactions(Long userId, List<TransactionRequestDTO> dtos) {
+        // resolve every referenced account and category once for the whole batch
+        Map<Long, Account> accounts = new HashMap<>();
+        Set<Long> accountIds = dtos.stream().map(TransactionRequestDTO::getAccountId)
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+        for (Account acc : accountRepository.findAllById(accountIds)) {
+            if (acc.getUser().getId().equals(userId)) accounts.put(acc.getId(), acc);
+        }
+        Account defaultAccount = dtos.stream().anyMatch(d -> d.getAccountId() == null)
+                ? accountRepository.findFirstByUserId(userId).orElse(null)
+                : null;
 
-        // adjust balance estimate if account present
-        if (t.getAccount() != null && t.getAmount() != null) {
-            var bal = t.getAccount().getBalanceEstimate() == null ? BigDecimal.ZERO : t.getAccount().getBalanceEstimate();
-            if ("DEBIT".equalsIgnoreCase(t.getType())) {
-                t.getAccount().setBalanceEstimate(bal.subtract(t.getAmount()));
+        Category defaultCategory = dtos.stream().anyMatch(d -> d.getCategoryId() == null)
+                ? categoryRegistry.defaultCategory()
+                : null;
+
+        User user = userRepository.getReferenceById(userId);
+        Instant now = Instant.now();
+        BalanceService.Deltas balanceDeltas = new BalanceService.Deltas();
+        Map<SpendingRollup.Key, SpendingRollupService.Delta> rollupDeltas = new HashMap<>();
+        List<TransactionResponseDTO> result = new ArrayList<>(dtos.size());
+        for (int i = 0; i < dtos.size(); i++) {
+            TransactionRequestDTO dto = dtos.get(i);
+            TransactionEntity t = new TransactionEntity();
+            t.setUser(user);
+            if (dto.getAccountId() != null) {
+                Account acc = accounts.get(dto.getAccountId());
+                if (acc == null) throw new NotFoundException("Account not found: " + dto.getAccountId());
+                t.setAccount(acc);
+            } else {
+                t.setAccount(defaultAccount);
+            }
+            if (dto.getCategoryId() != null) {
+                Long categoryId = dto.getCategoryId();
+                t.setCategory(categoryRegistry.find(userId, categoryId)
+                        .orElseThrow(() -> new NotFoundException("Category not found: " + categoryId)));
             } else {
-                t.getAccount().setBalanceEstimate(bal.add(t.getAmount()));
+                t.setCategory(defaultCategory);
+            }
+            t.setMerchant(dto.getMerchant());
+            t.setAmount(dto.getAmount());
+            t.setCurrency(dto.getCurrency());
+            t.setType(dto.getType());
+            t.setSource(dto.getSource());
+            t.setTxnDate(now);
+            entityManager.persist(t);
+
+            if (t.getAccount() != null) {
+                balanceDeltas.add(t.getAccount().getId(), t.getTxnDate(), BalanceService.signedAmount(t));
+            }
+            rollupDeltas.computeIfAbsent(SpendingRollupService.keyOf(t), k -> new SpendingRollupService.Delta())
+                    .add(t.getAmount(), 1);
+            result.add(toDto(t));
+            if ((i + 1) % batchSize == 0) {
+                // send the pending inserts as one JDBC batch and keep the persistence context small
+                entityManager.flush();
+                entityManager.clear();
             }
-            accountRepository.save(t.getAccount());
         }
+        entityManager.flush();
 
-        return toDto(t);
+        // one balance update per touched account instead of one per row
+        balanceService.applyDeltas(balanceDeltas);
+        rollupService.applyAll(rollupDeltas);
+        return result;
     }
 
     @Override
-    public TransactionResponseDTO getTransaction(String username, Long id) {
-        User user = userRepository.findByEmail(username).orElseThrow(() -> new NotFoundException("User not found"));
+    public TransactionResponseDTO getTransaction(Long userId, Long id) {
         TransactionEntity t = transactionRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Transaction not found"));
-        if (!t.getUser().getId().equals(user.getId())) throw new NotFoundException("Transaction not found");
+        if (!t.getUser().getId().equals(userId)) throw new NotFoundException("Transaction not found");
         return toDto(t);
     }
 
     @Override
-    public Page<TransactionResponseDTO> listTransactions(String username, Pageable pageable) {
-        User user = userRepository.findByEmail(username).orElseThrow(() -> new NotFoundException("User not found"));
-        Page<TransactionEntity> page = transactionRepository.findByUserId(user.getId(), pageable);
-        return page.map(this::toDto);
+    public Page<TransactionResponseDTO> listTransactions(Long userId, Pageable pageable) {
+        return transactionRepository.findDtosByUserId(userId, pageable);
     }
 
     @Override
-    public Page<TransactionResponseDTO> listTransactionsByCategory(String username, Long categoryId, Pageable pageable) {
-        User user = userRepository.findByEmail(username).orElseThrow(() -> new NotFoundException("User not found"));
-        Page<TransactionEntity> page = transactionRepository.findByUserIdAndCategoryId(user.getId(), categoryId, pageable);
-        return page.map(this::toDto);
+    public Page<TransactionResponseDTO> listTransactionsByCategory(Long userId, Long categoryId, Pageable pageable) {
+        return transactionRepository.findDtosByUserIdAndCategoryId(userId, categoryId, pageable);
     }
 
     @Override
-    public TransactionResponseDTO updateTransaction(String username, Long id, TransactionRequestDTO dto) {
-        User user = userRepository.findByEmail(username).orElseThrow(() -> new NotFoundException("User not found"));
-        TransactionEntity t = transactionRepository.findById(id)
+    public CursorPage<TransactionResponseDTO> scrollTransactions(Long userId, String cursor, int size) {
+        return searchTransactions(userId, null, cursor, size);
+    }
+
+    @Override
+    public CursorPage<TransactionResponseDTO> scrollTransactionsByCategory(Long userId, Long categoryId, String cursor, int size) {
+        TransactionSearchCriteria criteria = new TransactionSearchCriteria();
+        criteria.setCategoryId(categoryId);
+        return searchTransactions(userId, criteria, cursor, size);
+    }
+
+    @Override
+    public CursorPage<TransactionResponseDTO> searchTransactions(Long userId, TransactionSearchCriteria criteria, String cursor, int size) {
+        if (criteria != null) validate(criteria);
+        TransactionCursor after = cursor == null || cursor.isBlank() ? null : TransactionCursor.decode(cursor);
+        List<TransactionResponseDTO> rows = transactionSearchRepository.search(userId, criteria,
+                after == null ? null : after.getTxnDate(), after == null ? null : after.getId(), size + 1);
+
+        boolean hasMore = rows.size() > size;
+        List<TransactionResponseDTO> slice = hasMore ? rows.subList(0, size) : rows;
+        String next = null;
+        if (hasMore) {
+            TransactionResponseDTO last = slice.get(slice.size() - 1);
+            next = new TransactionCursor(last.getTxnDate(), last.getId()).encode();
+        }
+        return new CursorPage<>(new ArrayList<>(slice), next);
+    }
+
+    private static void validate(TransactionSearchCriteria criteria) {
+        if (criteria.getMinAmount() != null && criteria.getMaxAmount() != null
+                && criteria.getMinAmount().compareTo(criteria.getMaxAmount()) > 0) {
+            throw new IllegalArgumentException("minAmount must not exceed maxAmount");
+        }
+        if (criteria.getFrom() != null && criteria.getTo() != null && criteria.getFrom().isAfter(criteria.getTo())) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+    }
+
+    @Override
+    @Transactional
+    public TransactionResponseDTO updateTransaction(Long userId, Long id, TransactionRequestDTO dto) {
+        TransactionEntity t = transactionRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new NotFoundException("Transaction not found"));
-        if (!t.getUser().getId().equals(user.getId())) throw new NotFoundException("Transaction not found");
+        if (!t.getUser().getId().equals(userId)) throw new NotFoundException("Transaction not found");
 
+        Long oldAccountId = t.getAccount() == null ? null : t.getAccount().getId();
+        BigDecimal oldSigned = BalanceService.signedAmount(t);
+        SpendingRollup.Key oldBucket = SpendingRollupService.keyOf(t);
+        BigDecimal oldAmount = t.getAmount();
+
+        if (dto.getAccountId() != null) {
+            t.setAccount(ownedAccount(userId, dto.getAccountId()));
+        } // else keep existing
         t.setMerchant(dto.getMerchant());
         t.setAmount(dto.getAmount());
         t.setCurrency(dto.getCurrency());
         t.setType(dto.getType());
 
         if (dto.getCategoryId() != null) {
-            Category category = categoryRepository.findById(dto.getCategoryId())
-                    .orElseThrow(() -> new NotFoundException("Category not found"));
-            t.setCategory(category);
+            t.setCategory(categoryRegistry.get(userId, dto.getCategoryId()));
         } // else keep existing
 
         t.setSource(dto.getSource());
         transactionRepository.save(t);
+        balanceService.onUpdated(oldAccountId, oldSigned, t);
+        rollupService.onUpdated(oldBucket, oldAmount, t);
         return toDto(t);
     }
 
     @Override
-    public void deleteTransaction(String username, Long id) {
-        User user = userRepository.findByEmail(username).orElseThrow(() -> new NotFoundException("User not found"));
-        TransactionEntity t = transactionRepository.findById(id)
+    @Transactional
+    public void deleteTransaction(Long userId, Long id) {
+        TransactionEntity t = transactionRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new NotFoundException("Transaction not found"));
-        if (!t.getUser().getId().equals(user.getId())) throw new NotFoundException("Transaction not found");
+        if (!t.getUser().getId().equals(userId)) throw new NotFoundException("Transaction not found");
         transactionRepository.delete(t);
+        balanceService.onDeleted(t);
+        rollupService.onDeleted(t);
+    }
+
+    @Override
+    @Transactional
+    public int recategorizeTransactions(Long userId, TransactionBulkRequest request) {
+        if (request.getCategoryId() == null) throw new IllegalArgumentException("categoryId is required");
+        requireSelection(request);
+        Long target = categoryRegistry.get(userId, request.getCategoryId()).getId();
+        List<TransactionBulkRepository.Bucket> moved = transactionBulkRepository.recategorize(userId,
+                request.getIds(), request.getFilter(), target);
+
+        // balances are untouched; each moved bucket leaves its old category for the target
+        Map<SpendingRollup.Key, SpendingRollupService.Delta> rollupDeltas = new HashMap<>();
+        int count = 0;
+        for (TransactionBulkRepository.Bucket b : moved) {
+            rollupDeltas.computeIfAbsent(new SpendingRollup.Key(userId, b.getMonth(), b.getCategoryId(), b.getType()),
+                    k -> new SpendingRollupService.Delta()).add(b.getTotal().negate(), -b.getCount());
+            rollupDeltas.computeIfAbsent(new SpendingRollup.Key(userId, b.getMonth(), target, b.getType()),
+                    k -> new SpendingRollupService.Delta()).add(b.getTotal(), b.getCount());
+            count += b.getCount();
+        }
+        rollupService.applyAll(rollupDeltas);
+        return count;
+    }
+
+    @Override
+    @Transactional
+    public int deleteTransactions(Long userId, TransactionBulkRequest request) {
+        requireSelection(request);
+        List<TransactionBulkRepository.Bucket> deleted = transactionBulkRepository.delete(userId,
+                request.getIds(), request.getFilter());
+
+        BalanceService.Deltas balanceDeltas = new BalanceService.Deltas();
+        Map<SpendingRollup.Key, SpendingRollupService.Delta> rollupDeltas = new HashMap<>();
+        int count = 0;
+        for (TransactionBulkRepository.Bucket b : deleted) {
+            balanceDeltas.add(b.getAccountId(), b.getFirstAt(), b.getSignedTotal().negate());
+            rollupDeltas.computeIfAbsent(new SpendingRollup.Key(userId, b.getMonth(), b.getCategoryId(), b.getType()),
+                    k -> new SpendingRollupService.Delta()).add(b.getTotal().negate(), -b.getCount());
+            count += b.getCount();
+        }
+        balanceService.applyDeltas(balanceDeltas);
+        rollupService.applyAll(rollupDeltas);
+        return count;
+    }
+
+    /** Refuses bulk requests that would silently match every transaction of the user. */
+    private static void requireSelection(TransactionBulkRequest request) {
+        boolean hasIds = request.getIds() != null && !request.getIds().isEmpty();
+        boolean hasFilter = request.getFilter() != null && !request.getFilter().hasNoFilters();
+        if (!hasIds && !hasFilter) throw new IllegalArgumentException("ids or a non-empty filter is required");
+        if (request.getFilter() != null) validate(request.getFilter());
+    }
+
+    private Account ownedAccount(Long userId, Long accountId) {
+        Account acc = accountRepository.findById(accountId)
+                .orElseThrow(() -> new NotFoundException("Account not found"));
+        if (!acc.getUser().getId().equals(userId)) throw new NotFoundException("Account not found");
+        return acc;
     }
 
     private TransactionResponseDTO toDto(TransactionEntity t) {
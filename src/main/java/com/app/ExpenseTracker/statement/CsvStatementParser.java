@@ -0,0 +1,244 @@
+package com.app.ExpenseTracker.statement;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * CSV statements as exported by most banks. Columns are located by header name
+ * (date, narration/description, amount or separate debit/credit columns, optional
+ * type and currency); preamble lines before the header are ignored.
+ */
+public class CsvStatementParser implements StatementParser {
+
+    private static final int MAX_PREAMBLE_RECORDS = 50;
+
+    private static final List<String> DATE_HEADERS = List.of("date", "txn date", "transaction date", "value date", "posted date", "posting date");
+    private static final List<String> MERCHANT_HEADERS = List.of("description", "narration", "merchant", "particulars", "details", "payee", "name", "remarks");
+    private static final List<String> AMOUNT_HEADERS = List.of("amount", "transaction amount", "amt");
+    private static final List<String> DEBIT_HEADERS = List.of("debit", "withdrawal", "withdrawal amt", "withdrawal amount", "debit amount", "dr");
+    private static final List<String> CREDIT_HEADERS = List.of("credit", "deposit", "deposit amt", "deposit amount", "credit amount", "cr");
+    private static final List<String> TYPE_HEADERS = List.of("type", "dr/cr", "cr/dr", "transaction type");
+    private static final List<String> CURRENCY_HEADERS = List.of("currency", "ccy");
+
+    // day-first, as Indian banks write them; ISO first since it is unambiguous
+    private static final List<DateTimeFormatter> DEFAULT_DATE_FORMATS = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ofPattern("dd/MM/yyyy"),
+            DateTimeFormatter.ofPattern("dd-MM-yyyy"),
+            DateTimeFormatter.ofPattern("dd.MM.yyyy"),
+            DateTimeFormatter.ofPattern("dd/MM/yy"),
+            DateTimeFormatter.ofPattern("dd-MM-yy"),
+            new DateTimeFormatterBuilder().parseCaseInsensitive().appendPattern("dd-MMM-yyyy").toFormatter(Locale.ENGLISH),
+            new DateTimeFormatterBuilder().parseCaseInsensitive().appendPattern("dd MMM yyyy").toFormatter(Locale.ENGLISH),
+            new DateTimeFormatterBuilder().parseCaseInsensitive().appendPattern("dd-MMM-yy").toFormatter(Locale.ENGLISH));
+
+    private final List<DateTimeFormatter> dateFormats;
+
+    public CsvStatementParser() {
+        this(null);
+    }
+
+    /** @param dateFormat explicit date pattern, or null to try the common bank formats */
+    public CsvStatementParser(String dateFormat) {
+        this.dateFormats = dateFormat == null || dateFormat.isBlank()
+                ? DEFAULT_DATE_FORMATS
+                : List.of(new DateTimeFormatterBuilder().parseCaseInsensitive().appendPattern(dateFormat).toFormatter(Locale.ENGLISH));
+    }
+
+    private static final class Columns {
+        int date = -1, merchant = -1, amount = -1, debit = -1, credit = -1, type = -1, currency = -1;
+
+        boolean usable() {
+            return date >= 0 && (amount >= 0 || debit >= 0 || credit >= 0);
+        }
+    }
+
+    @Override
+    public void parse(Reader reader, Sink sink) throws IOException {
+        CsvRecordReader records = new CsvRecordReader(reader);
+        Columns cols = null;
+        List<String> record;
+        while ((record = records.next()) != null) {
+            long recordNumber = records.recordNumber();
+            if (cols == null) {
+                Columns candidate = header(record);
+                if (candidate.usable()) {
+                    cols = candidate;
+                } else if (recordNumber >= MAX_PREAMBLE_RECORDS) {
+                    throw new IllegalArgumentException("No header with date and amount columns in the first "
+                            + MAX_PREAMBLE_RECORDS + " lines");
+                }
+                continue;
+            }
+            if (isBlank(record)) continue;
+            try {
+                StatementRow row = toRow(record, cols);
+                if (row != null) sink.row(row);
+                else sink.skipped(recordNumber, "no amount");
+            } catch (RuntimeException ex) {
+                sink.skipped(recordNumber, ex.getMessage());
+            }
+        }
+        if (cols == null) throw new IllegalArgumentException("No header with date and amount columns found");
+    }
+
+    private static Columns header(List<String> record) {
+        Columns c = new Columns();
+        for (int i = 0; i < record.size(); i++) {
+            String h = record.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT).replaceAll("\\s*\\(.*\\)$", "").replace(".", "");
+            if (c.date < 0 && DATE_HEADERS.contains(h)) c.date = i;
+            else if (c.merchant < 0 && MERCHANT_HEADERS.contains(h)) c.merchant = i;
+            else if (c.amount < 0 && AMOUNT_HEADERS.contains(h)) c.amount = i;
+            else if (c.debit < 0 && DEBIT_HEADERS.contains(h)) c.debit = i;
+            else if (c.credit < 0 && CREDIT_HEADERS.contains(h)) c.credit = i;
+            else if (c.type < 0 && TYPE_HEADERS.contains(h)) c.type = i;
+            else if (c.currency < 0 && CURRENCY_HEADERS.contains(h)) c.currency = i;
+        }
+        return c;
+    }
+
+    private StatementRow toRow(List<String> record, Columns c) {
+        StatementRow row = new StatementRow();
+        row.setDate(parseDate(cell(record, c.date)));
+        row.setMerchant(emptyToNull(cell(record, c.merchant)));
+        row.setCurrency(emptyToNull(cell(record, c.currency)));
+
+        BigDecimal debit = parseAmount(cell(record, c.debit));
+        BigDecimal credit = parseAmount(cell(record, c.credit));
+        if (debit != null && debit.signum() != 0) {
+            row.setAmount(debit.abs());
+            row.setType("DEBIT");
+        } else if (credit != null && credit.signum() != 0) {
+            row.setAmount(credit.abs());
+            row.setType("CREDIT");
+        } else {
+            String raw = cell(record, c.amount);
+            BigDecimal amount = parseAmount(raw);
+            if (amount == null) return null;
+            String type = typeOf(cell(record, c.type));
+            if (type == null) type = typeOf(raw);
+            if (type == null) type = amount.signum() < 0 ? "DEBIT" : "CREDIT";
+            row.setAmount(amount.abs());
+            row.setType(type);
+        }
+        return row;
+    }
+
+    private LocalDate parseDate(String value) {
+        String v = value == null ? "" : value.trim();
+        // some exports append a time to the date column
+        int space = v.indexOf(' ');
+        for (String candidate : space > 0 && !Character.isLetter(v.charAt(space + 1)) ? List.of(v, v.substring(0, space)) : List.of(v)) {
+            for (DateTimeFormatter f : dateFormats) {
+                try {
+                    return LocalDate.parse(candidate, f);
+                } catch (DateTimeParseException ignored) {
+                    // try the next format
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unrecognized date: " + value);
+    }
+
+    static BigDecimal parseAmount(String value) {
+        if (value == null) return null;
+        String v = value.trim();
+        if (v.isEmpty() || v.equals("-")) return null;
+        boolean negative = v.startsWith("(") && v.endsWith(")");
+        StringBuilder digits = new StringBuilder(v.length());
+        for (int i = 0; i < v.length(); i++) {
+            char ch = v.charAt(i);
+            if (Character.isDigit(ch) || ch == '.') digits.append(ch);
+            else if (ch == '-' && digits.length() == 0) negative = true;
+        }
+        if (digits.length() == 0) return null;
+        BigDecimal amount = new BigDecimal(digits.toString());
+        return negative ? amount.negate() : amount;
+    }
+
+    private static String typeOf(String value) {
+        if (value == null) return null;
+        String v = value.trim().toUpperCase(Locale.ROOT);
+        if (v.equals("DR") || v.endsWith(" DR") || v.startsWith("DEBIT") || v.equals("D")) return "DEBIT";
+        if (v.equals("CR") || v.endsWith(" CR") || v.startsWith("CREDIT") || v.equals("C")) return "CREDIT";
+        return null;
+    }
+
+    private static String cell(List<String> record, int index) {
+        return index >= 0 && index < record.size() ? record.get(index) : null;
+    }
+
+    private static String emptyToNull(String s) {
+        return s == null || s.isBlank() ? null : s.trim();
+    }
+
+    private static boolean isBlank(List<String> record) {
+        for (String s : record) if (!s.isBlank()) return false;
+        return true;
+    }
+
+    /** Minimal RFC 4180 reader: quoted fields may contain commas, quotes and newlines. */
+    static final class CsvRecordReader {
+        private final Reader in;
+        private long recordNumber;
+        private boolean eof;
+
+        CsvRecordReader(Reader in) {
+            // mark/reset is used to look one character past a closing quote
+            this.in = in.markSupported() ? in : new BufferedReader(in);
+        }
+
+        long recordNumber() {
+            return recordNumber;
+        }
+
+        List<String> next() throws IOException {
+            if (eof) return null;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean any = false;
+            int ch;
+            while ((ch = in.read()) != -1) {
+                any = true;
+                if (quoted) {
+                    if (ch == '"') {
+                        in.mark(1);
+                        int peek = in.read();
+                        if (peek == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            if (peek != -1) in.reset();
+                        }
+                    } else {
+                        field.append((char) ch);
+                    }
+                } else if (ch == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (ch == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (ch == '\n') {
+                    break;
+                } else if (ch != '\r') {
+                    field.append((char) ch);
+                }
+            }
+            if (ch == -1) {
+                eof = true;
+                if (!any) return null;
+            }
+            fields.add(field.toString());
+            recordNumber++;
+            return fields;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.app.ExpenseTracker.statement;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * OFX 1.x (SGML, unclosed leaf tags) and 2.x (XML) statements. The file is read
+ * as a flat stream of tags; each {@code <STMTTRN>} block becomes one row.
+ */
+public class OfxStatementParser implements StatementParser {
+
+    private static final DateTimeFormatter OFX_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    @Override
+    public void parse(Reader reader, Sink sink) throws IOException {
+        BufferedReader in = reader instanceof BufferedReader b ? b : new BufferedReader(reader);
+        String currency = null;
+        StatementRow current = null;
+        String trnType = null;
+        String name = null;
+        String memo = null;
+        long recordNumber = 0;
+
+        String tag;
+        while ((tag = nextTag(in)) != null) {
+            if (tag.startsWith("/")) {
+                // SGML files may leave the last STMTTRN open until </BANKTRANLIST>
+                if ((tag.equals("/STMTTRN") || tag.equals("/BANKTRANLIST")) && current != null) {
+                    recordNumber++;
+                    finish(current, trnType, name, memo, currency, recordNumber, sink);
+                    current = null;
+                }
+                continue;
+            }
+            switch (tag) {
+                case "STMTTRN" -> {
+                    if (current != null) {
+                        // SGML files may omit </STMTTRN>
+                        recordNumber++;
+                        finish(current, trnType, name, memo, currency, recordNumber, sink);
+                    }
+                    current = new StatementRow();
+                    trnType = name = memo = null;
+                }
+                case "CURDEF" -> currency = value(in);
+                case "TRNTYPE" -> trnType = value(in);
+                case "DTPOSTED" -> {
+                    String v = value(in);
+                    if (current != null && v != null && v.length() >= 8) current.setDate(LocalDate.parse(v.substring(0, 8), OFX_DATE));
+                }
+                case "TRNAMT" -> {
+                    String v = value(in);
+                    if (current != null && v != null && !v.isEmpty()) current.setAmount(new BigDecimal(v.replace(",", ".")));
+                }
+                case "FITID" -> {
+                    String v = value(in);
+                    if (current != null) current.setExternalId(v);
+                }
+                case "NAME", "PAYEE" -> name = value(in);
+                case "MEMO" -> memo = value(in);
+                default -> { }
+            }
+        }
+        if (current != null) {
+            recordNumber++;
+            finish(current, trnType, name, memo, currency, recordNumber, sink);
+        }
+    }
+
+    private static void finish(StatementRow row, String trnType, String name, String memo, String currency,
+                               long recordNumber, Sink sink) {
+        if (row.getDate() == null || row.getAmount() == null) {
+            sink.skipped(recordNumber, "STMTTRN without DTPOSTED or TRNAMT");
+            return;
+        }
+        String type = trnType == null ? "" : trnType.toUpperCase(Locale.ROOT);
+        boolean debit = row.getAmount().signum() < 0 || type.equals("DEBIT") || type.equals("PAYMENT")
+                || type.equals("CHECK") || type.equals("ATM") || type.equals("POS") || type.equals("FEE");
+        row.setType(debit ? "DEBIT" : "CREDIT");
+        row.setAmount(row.getAmount().abs());
+        row.setMerchant(name != null && !name.isBlank() ? name : memo);
+        row.setCurrency(currency);
+        sink.row(row);
+    }
+
+    /** Advances past the next '<' and returns the tag name, upper-cased; null at end of input. */
+    private static String nextTag(BufferedReader in) throws IOException {
+        int ch;
+        while ((ch = in.read()) != -1 && ch != '<') {
+            // skip header lines and text outside of the fields we read
+        }
+        if (ch == -1) return null;
+        StringBuilder tag = new StringBuilder();
+        while ((ch = in.read()) != -1 && ch != '>') tag.append((char) ch);
+        return tag.toString().trim().toUpperCase(Locale.ROOT);
+    }
+
+    /** Text after the current tag up to the next tag or line end, without consuming the next '<'. */
+    private static String value(BufferedReader in) throws IOException {
+        StringBuilder v = new StringBuilder();
+        while (true) {
+            in.mark(1);
+            int ch = in.read();
+            if (ch == -1) break;
+            if (ch == '<' || ch == '\n' || ch == '\r') {
+                in.reset();
+                break;
+            }
+            v.append((char) ch);
+        }
+        String s = unescape(v.toString().trim());
+        return s.isEmpty() ? null : s;
+    }
+
+    private static String unescape(String s) {
+        if (s.indexOf('&') < 0) return s;
+        return s.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"").replace("&apos;", "'").replace("&amp;", "&");
+    }
+}
@@ -0,0 +1,20 @@
+package com.app.ExpenseTracker.statement;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Streaming statement reader: lines are handed to the sink as they are parsed,
+ * so a parser never holds more than the current record.
+ */
+public interface StatementParser {
+
+    interface Sink {
+        void row(StatementRow row);
+
+        /** A record that could not be turned into a row; parsing continues. */
+        void skipped(long recordNumber, String reason);
+    }
+
+    void parse(Reader reader, Sink sink) throws IOException;
+}
@@ -0,0 +1,67 @@
+package com.app.ExpenseTracker.statement;
+
+import com.app.ExpenseTracker.security.TokenDigests;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * One transaction line read from a bank statement. {@code amount} is always
+ * positive; the direction is carried by {@code type} (DEBIT / CREDIT).
+ */
+public class StatementRow {
+    private LocalDate date;
+    private BigDecimal amount;
+    private String type;
+    private String merchant;
+    private String currency;
+    private String externalId; // bank-assigned id (OFX FITID), if the format has one
+
+    // getters/setters
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    public String getMerchant() { return merchant; }
+    public void setMerchant(String merchant) { this.merchant = merchant; }
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+    public String getExternalId() { return externalId; }
+    public void setExternalId(String externalId) { this.externalId = externalId; }
+
+    /** True when the bank gave this line its own id, so no occurrence counting is needed. */
+    public boolean hasExternalId() {
+        return externalId != null && !externalId.isBlank();
+    }
+
+    /** Date, amount, direction and description; equal for lines that look the same. */
+    public String contentKey() {
+        return date + "|" + amount.stripTrailingZeros().toPlainString() + "|" + type + "|"
+                + (merchant == null ? "" : merchant.trim().toLowerCase(Locale.ROOT));
+    }
+
+    /** Date, amount and direction; what a hand-entered row for this line would share with it. */
+    public String matchKey() {
+        return matchKey(date, amount, type);
+    }
+
+    public static String matchKey(LocalDate date, BigDecimal amount, String type) {
+        return date + "|" + amount.stripTrailingZeros().toPlainString() + "|"
+                + (type == null ? "" : type.toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Stable identity of this line within an account. Uses the bank's id when there is
+     * one; otherwise the {@link #contentKey()} plus {@code occurrence}, which tells apart
+     * identical lines on the same day (two equal coffees).
+     */
+    public byte[] importHash(Long accountId, int occurrence) {
+        String key = hasExternalId()
+                ? accountId + "|id|" + externalId.trim()
+                : accountId + "|" + contentKey() + "|" + occurrence;
+        return TokenDigests.sha256(key);
+    }
+}
@@ -0,0 +1,22 @@
+-- V10: per user/month/category/type totals, maintained incrementally by the app
+
+CREATE TABLE spending_rollups (
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    month DATE NOT NULL,                   -- first day of the month
+    category_id BIGINT NOT NULL DEFAULT 0, -- 0 = no category; no FK so deleted categories can be folded away
+    type VARCHAR(20) NOT NULL,
+    total NUMERIC(18,2) NOT NULL DEFAULT 0,
+    txn_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, month, category_id, type)
+);
+
+-- backfill from existing transactions
+INSERT INTO spending_rollups (user_id, month, category_id, type, total, txn_count)
+SELECT user_id,
+       date_trunc('month', COALESCE(txn_date, created_at, CURRENT_TIMESTAMP))::date,
+       COALESCE(category_id, 0),
+       UPPER(COALESCE(type, 'UNKNOWN')),
+       SUM(amount),
+       COUNT(*)
+FROM transactions
+GROUP BY 1, 2, 3, 4;
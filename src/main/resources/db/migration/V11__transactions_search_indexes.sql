@@ -0,0 +1,7 @@
+-- V11: composite indexes for /api/transactions/search
+-- Equality filters go first and the keyset order (txn_date DESC, id DESC) last, so a
+-- filtered slice is an index range scan that stops after LIMIT rows. Date ranges use
+-- idx_transactions_user_date_id (V8), category filters idx_transactions_user_category_date_id;
+-- amount, type and merchant stay residual filters on those scans.
+CREATE INDEX IF NOT EXISTS idx_transactions_user_account_date_id
+    ON transactions(user_id, account_id, txn_date DESC, id DESC);
@@ -0,0 +1,12 @@
+-- V12: merchant search
+-- pg_trgm gives similarity ranking and index support for % / ILIKE; btree_gin lets the
+-- trigram GIN index lead with user_id so lookups never touch other users' rows.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS btree_gin;
+
+CREATE INDEX IF NOT EXISTS idx_transactions_user_merchant_trgm
+    ON transactions USING gin (user_id, merchant gin_trgm_ops);
+
+-- prefix autocomplete: byte-order collation makes LIKE 'abc%' a btree range scan
+CREATE INDEX IF NOT EXISTS idx_transactions_user_merchant_prefix
+    ON transactions(user_id, (lower(merchant)) COLLATE "C");
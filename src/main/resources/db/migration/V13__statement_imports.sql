@@ -0,0 +1,25 @@
+-- V13: bank statement imports
+-- import_hash identifies a statement line (see StatementRow#importHash) so re-uploading
+-- an overlapping statement inserts only the lines that are not there yet
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS import_hash BYTEA;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_transactions_user_import_hash
+    ON transactions(user_id, import_hash) WHERE import_hash IS NOT NULL;
+
+CREATE TABLE statement_imports (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    account_id BIGINT REFERENCES accounts(id) ON DELETE SET NULL,
+    filename VARCHAR(255),
+    format VARCHAR(10) NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING', -- PENDING / RUNNING / COMPLETED / FAILED
+    rows_read BIGINT NOT NULL DEFAULT 0,
+    rows_inserted BIGINT NOT NULL DEFAULT 0,
+    rows_duplicate BIGINT NOT NULL DEFAULT 0,
+    rows_skipped BIGINT NOT NULL DEFAULT 0,         -- lines that could not be parsed
+    error TEXT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    finished_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_statement_imports_user ON statement_imports(user_id, created_at DESC);
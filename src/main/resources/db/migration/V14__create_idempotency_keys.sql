@@ -0,0 +1,14 @@
+-- V14: Idempotency-Key support for POST /api/transactions and /api/ingest
+-- key_hash is SHA-256 of "<endpoint>|<client key>", request_hash SHA-256 of the request body
+CREATE TABLE idempotency_keys (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    key_hash BYTEA NOT NULL,
+    request_hash BYTEA NOT NULL,
+    response_body TEXT, -- null while the first request is still running
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL,
+    CONSTRAINT uq_idempotency_keys_user_key UNIQUE (user_id, key_hash)
+);
+
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys(expires_at);
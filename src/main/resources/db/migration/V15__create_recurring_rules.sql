@@ -0,0 +1,21 @@
+-- V15: recurring transaction rules, materialized by RecurringTransactionGenerator
+CREATE TABLE recurring_rules (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    account_id BIGINT REFERENCES accounts(id) ON DELETE SET NULL,
+    category_id BIGINT REFERENCES categories(id) ON DELETE SET NULL,
+    merchant VARCHAR(255) NOT NULL,
+    amount NUMERIC(18,2) NOT NULL,
+    currency VARCHAR(10),
+    type VARCHAR(255) NOT NULL,
+    cadence VARCHAR(100) NOT NULL, -- Spring cron expression or macro (@monthly, @weekly, ...)
+    next_run_at TIMESTAMP NOT NULL,
+    end_at TIMESTAMP,
+    active BOOLEAN NOT NULL DEFAULT TRUE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_recurring_rules_user ON recurring_rules(user_id);
+
+-- the generator only ever reads active rules that are due, oldest first
+CREATE INDEX idx_recurring_rules_due ON recurring_rules(next_run_at) WHERE active;
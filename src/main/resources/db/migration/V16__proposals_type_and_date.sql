@@ -0,0 +1,3 @@
+-- V16: transaction type and date read from the ingested bank message
+ALTER TABLE proposals ADD COLUMN type VARCHAR(20);
+ALTER TABLE proposals ADD COLUMN txn_date DATE;
@@ -0,0 +1,3 @@
+-- V17: other numbers and handles an account shows up under in bank messages
+-- (add-on card digits, UPI handles), used by AccountResolver
+ALTER TABLE accounts ADD COLUMN aliases TEXT[];
@@ -0,0 +1,20 @@
+-- V18: date ledger entries by when the money moved (the transaction's txn_date)
+-- instead of when the entry was written, so backdated imports, recurring
+-- catch-up and proposals with a bank date land at the right point in history
+ALTER TABLE ledger_entries ADD COLUMN effective_at TIMESTAMP;
+
+UPDATE ledger_entries e SET effective_at = t.txn_date
+FROM transactions t
+WHERE t.id = e.transaction_id AND t.txn_date IS NOT NULL;
+
+-- batch entries, openings, adjustments and entries of deleted rows keep their write time
+UPDATE ledger_entries SET effective_at = recorded_at WHERE effective_at IS NULL;
+
+ALTER TABLE ledger_entries ALTER COLUMN effective_at SET DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE ledger_entries ALTER COLUMN effective_at SET NOT NULL;
+
+DROP INDEX idx_ledger_entries_account_recorded_at;
+CREATE INDEX idx_ledger_entries_account_effective_at ON ledger_entries(account_id, effective_at);
+
+-- snapshots were rolled up by recorded_at; the next snapshot run rebuilds them
+DELETE FROM balance_snapshots;
@@ -0,0 +1,6 @@
+-- V19: every transaction has a date. Keyset paging encodes (txn_date, id) as its
+-- cursor and a NULL date sorts first under DESC and never matches the row
+-- comparison, so such rows broke paging. Rows without one take their creation time.
+UPDATE transactions SET txn_date = COALESCE(created_at, CURRENT_TIMESTAMP) WHERE txn_date IS NULL;
+
+ALTER TABLE transactions ALTER COLUMN txn_date SET NOT NULL;
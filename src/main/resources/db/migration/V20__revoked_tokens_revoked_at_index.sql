@@ -0,0 +1,2 @@
+-- V20: every instance polls for tokens revoked since its last sync
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_revoked_at ON revoked_tokens(revoked_at);
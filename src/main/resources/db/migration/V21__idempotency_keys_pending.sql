@@ -0,0 +1,3 @@
+-- V21: keys of /api/ingest/async are stored with their 202 response before the
+-- message is queued, and stay pending until the writer has inserted the proposal
+ALTER TABLE idempotency_keys ADD COLUMN pending BOOLEAN NOT NULL DEFAULT FALSE;
@@ -0,0 +1,9 @@
+-- V22: instances stamp the imports they are working on, so an import is only
+-- failed as interrupted once nobody has touched it for a while, not because
+-- some other instance restarted
+ALTER TABLE statement_imports ADD COLUMN heartbeat_at TIMESTAMP;
+
+UPDATE statement_imports SET heartbeat_at = created_at WHERE status IN ('PENDING', 'RUNNING');
+
+CREATE INDEX IF NOT EXISTS idx_statement_imports_unfinished_heartbeat
+    ON statement_imports(heartbeat_at) WHERE status IN ('PENDING', 'RUNNING');
@@ -0,0 +1,18 @@
+-- V5: keep a fixed-size SHA-256 digest of revoked tokens instead of the raw JWT
+
+-- rows past their expiry are useless, drop them before rewriting the table
+DELETE FROM revoked_tokens WHERE expires_at < CURRENT_TIMESTAMP;
+
+ALTER TABLE revoked_tokens ADD COLUMN IF NOT EXISTS token_hash BYTEA;
+
+UPDATE revoked_tokens
+SET token_hash = sha256(convert_to(token, 'UTF8'))
+WHERE token_hash IS NULL;
+
+ALTER TABLE revoked_tokens ALTER COLUMN token_hash SET NOT NULL;
+
+-- the unique constraint on token already had an index; the extra one was redundant
+DROP INDEX IF EXISTS idx_revoked_tokens_token;
+ALTER TABLE revoked_tokens DROP COLUMN IF EXISTS token;
+
+ALTER TABLE revoked_tokens ADD CONSTRAINT uq_revoked_tokens_token_hash UNIQUE (token_hash);
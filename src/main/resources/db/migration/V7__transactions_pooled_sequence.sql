@@ -0,0 +1,3 @@
+-- V7: let Hibernate hand out transaction ids from blocks of 50 (pooled optimizer)
+-- so inserts can be JDBC-batched. Must match allocationSize on TransactionEntity.
+ALTER SEQUENCE transactions_id_seq INCREMENT BY 50;
@@ -0,0 +1,6 @@
+-- V8: indexes matching the keyset listing order (txn_date DESC, id DESC) per user
+CREATE INDEX IF NOT EXISTS idx_transactions_user_date_id
+    ON transactions(user_id, txn_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_transactions_user_category_date_id
+    ON transactions(user_id, category_id, txn_date DESC, id DESC);
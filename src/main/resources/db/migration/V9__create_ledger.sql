@@ -0,0 +1,25 @@
+-- V9: append-only per-account ledger plus periodic balance snapshots
+
+CREATE TABLE ledger_entries (
+    id BIGSERIAL PRIMARY KEY,
+    account_id BIGINT NOT NULL REFERENCES accounts(id) ON DELETE CASCADE,
+    transaction_id BIGINT, -- no FK: entries outlive deleted transactions
+    entry_type VARCHAR(20) NOT NULL,
+    amount NUMERIC(18,2) NOT NULL,
+    recorded_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_ledger_entries_account_recorded_at ON ledger_entries(account_id, recorded_at);
+
+CREATE TABLE balance_snapshots (
+    id BIGSERIAL PRIMARY KEY,
+    account_id BIGINT NOT NULL REFERENCES accounts(id) ON DELETE CASCADE,
+    as_of TIMESTAMP NOT NULL,
+    balance NUMERIC(18,2) NOT NULL,
+    CONSTRAINT uq_balance_snapshots_account_as_of UNIQUE (account_id, as_of)
+);
+
+-- history starts now: open every existing account at its current estimate
+INSERT INTO ledger_entries (account_id, entry_type, amount, recorded_at)
+SELECT id, 'OPENING', COALESCE(balance_estimate, 0), CURRENT_TIMESTAMP
+FROM accounts;
@@ -0,0 +1,101 @@
+package com.app.ExpenseTracker.ingest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The plan cache may only ever save work: every message must parse exactly as
+ * the full parser would, whatever was cached under its fingerprint before.
+ */
+class BankMessageExtractorTests {
+
+    static final String SENDER = "VM-HDFCBK";
+
+    // all three share the fingerprint "Rs # debited from A/c # on # to W @"
+    static final String DEBIT = "Rs 500.00 debited from A/c XX1234 on 12-10-24 to VPA swiggy@icici";
+    static final String OTHER_DEBIT = "Rs 120.00 debited from A/c XX5678 on 13-10-24 to VPA zomato@okaxis";
+    static final String DOTTED_DATE = "Rs 500.00 debited from A/c XX1234 on 12.10.24 to VPA swiggy@icici";
+
+    static final String OTP = "Your OTP for login is 483920. Do not share it with anyone.";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger fallbackCalls = new AtomicInteger();
+
+    private BankMessageExtractor extractor(FallbackMessageParser fallback) {
+        return new BankMessageExtractor(new BankMessageParser(), Optional.ofNullable(fallback), registry,
+                100, 10, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void repeatLayoutIsServedFromTheCache() {
+        BankMessageExtractor extractor = extractor(null);
+
+        assertEquals(new BigDecimal("500.00"), extractor.parse(SENDER, DEBIT).orElseThrow().getAmount());
+        ParsedBankMessage second = extractor.parse(SENDER, OTHER_DEBIT).orElseThrow();
+
+        assertEquals(new BigDecimal("120.00"), second.getAmount());
+        assertEquals("zomato@okaxis", second.getMerchant());
+        assertEquals("5678", second.getAccountHint());
+        assertEquals(1.0, count("hit"));
+        assertEquals(1.0, count("miss"));
+    }
+
+    @Test
+    void collidingMessageTheCachedPlanCannotParseIsParsedInFull() {
+        BankMessageExtractor extractor = extractor(null);
+
+        assertTrue(extractor.parse(SENDER, DEBIT).isPresent());
+        assertTrue(extractor.parse(SENDER, DOTTED_DATE).isEmpty());
+        // the failed collision must not leave the layout unparseable
+        assertEquals(new BigDecimal("120.00"), extractor.parse(SENDER, OTHER_DEBIT).orElseThrow().getAmount());
+    }
+
+    @Test
+    void unparseableMessageDoesNotDisableItsLayout() {
+        BankMessageExtractor extractor = extractor(null);
+
+        assertTrue(extractor.parse(SENDER, DOTTED_DATE).isEmpty());
+        assertEquals(new BigDecimal("500.00"), extractor.parse(SENDER, DEBIT).orElseThrow().getAmount());
+        assertEquals(new BigDecimal("120.00"), extractor.parse(SENDER, OTHER_DEBIT).orElseThrow().getAmount());
+    }
+
+    @Test
+    void unparseableLayoutAsksTheFallbackOnce() {
+        BankMessageExtractor extractor = extractor(normalized -> {
+            fallbackCalls.incrementAndGet();
+            return Optional.empty();
+        });
+
+        assertTrue(extractor.parse(SENDER, OTP).isEmpty());
+        assertTrue(extractor.parse(SENDER, OTP.replace("483920", "112233")).isEmpty());
+
+        assertEquals(1, fallbackCalls.get());
+    }
+
+    @Test
+    void learnedPlanIsReused() {
+        BankMessageTemplate otp = new BankMessageTemplate("otp", "DEBIT", "OTP for login is {amount}");
+        BankMessageExtractor extractor = extractor(normalized -> {
+            fallbackCalls.incrementAndGet();
+            return Optional.of(otp);
+        });
+
+        assertEquals(new BigDecimal("483920"), extractor.parse(SENDER, OTP).orElseThrow().getAmount());
+        assertEquals(new BigDecimal("112233"),
+                extractor.parse(SENDER, OTP.replace("483920", "112233")).orElseThrow().getAmount());
+
+        assertEquals(1, fallbackCalls.get());
+        assertEquals(1.0, count("hit"));
+    }
+
+    private double count(String result) {
+        return registry.get("ingest.parse.cache").tag("sender", SENDER).tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,80 @@
+package com.app.ExpenseTracker.ingest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parser throughput on the golden corpus, with and without the fingerprint
+ * cache, single-threaded, so the score reads as messages per second per core.
+ * Not part of the test run; start it with
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.app.ExpenseTracker.ingest.BankMessageParserBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(1)
+@Fork(1)
+public class BankMessageParserBenchmark {
+
+    private BankMessageParser parser;
+    private BankMessageExtractor extractor;
+    private String[] messages;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        parser = new BankMessageParser();
+        extractor = new BankMessageExtractor(parser, Optional.empty(), new SimpleMeterRegistry(), 10_000, 200,
+                Duration.ofMinutes(10));
+        List<JsonNode> corpus = BankMessageParserGoldenTests.corpus();
+        messages = corpus.stream().map(c -> c.get("text").asText()).toArray(String[]::new);
+    }
+
+    /** One corpus message per invocation, matching and non-matching alike. */
+    @Benchmark
+    public void parse(Blackhole bh) {
+        String text = messages[next];
+        next = next + 1 == messages.length ? 0 : next + 1;
+        bh.consume(parser.parse(text));
+    }
+
+    /** The ingest path: fingerprint lookup, then the cached layout's plan (all hits after the first round). */
+    @Benchmark
+    public void parseCached(Blackhole bh) {
+        String text = messages[next];
+        next = next + 1 == messages.length ? 0 : next + 1;
+        bh.consume(extractor.parse("BENCH", text));
+    }
+
+    /** Building the combined matcher, i.e. the one-off startup cost. */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public BankMessageParser compile() {
+        return new BankMessageParser();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(BankMessageParserBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
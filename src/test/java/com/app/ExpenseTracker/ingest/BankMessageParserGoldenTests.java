@@ -0,0 +1,100 @@
+package com.app.ExpenseTracker.ingest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Every message in {@code ingest/bank-messages.golden.jsonl} must parse to exactly
+ * the fields recorded next to it; {@code "template": null} marks text no template
+ * may match. New bank formats are added to the corpus together with their template.
+ */
+class BankMessageParserGoldenTests {
+
+    static final String CORPUS = "/ingest/bank-messages.golden.jsonl";
+
+    private final BankMessageParser parser = new BankMessageParser();
+
+    @Test
+    void corpusParsesToRecordedFields() throws IOException {
+        List<JsonNode> cases = corpus();
+        assertFalse(cases.isEmpty(), "empty corpus");
+        List<Executable> checks = new ArrayList<>();
+        for (JsonNode c : cases) {
+            String text = c.get("text").asText();
+            Optional<ParsedBankMessage> parsed = parser.parse(text);
+            String expectedTemplate = textOrNull(c, "template");
+            if (expectedTemplate == null) {
+                checks.add(() -> assertTrue(parsed.isEmpty(), () -> "expected no match: " + text));
+                continue;
+            }
+            checks.add(() -> {
+                ParsedBankMessage p = parsed.orElseThrow(() -> new AssertionError("no match: " + text));
+                assertEquals(expectedTemplate, p.getTemplate(), text);
+                assertEquals(new BigDecimal(c.get("amount").asText()), p.getAmount(), text);
+                assertEquals(textOrNull(c, "currency"), p.getCurrency(), text);
+                assertEquals(textOrNull(c, "merchant"), p.getMerchant(), text);
+                assertEquals(textOrNull(c, "accountHint"), p.getAccountHint(), text);
+                assertEquals(textOrNull(c, "type"), p.getType(), text);
+                String date = textOrNull(c, "date");
+                assertEquals(date == null ? null : LocalDate.parse(date), p.getDate(), text);
+            });
+        }
+        assertAll(checks);
+    }
+
+    @Test
+    void everyTemplateIsCovered() throws IOException {
+        List<String> covered = corpus().stream().map(c -> textOrNull(c, "template")).toList();
+        for (BankMessageTemplate t : parser.getTemplates()) {
+            assertTrue(covered.contains(t.getName()), "no corpus message for template " + t.getName());
+        }
+    }
+
+    @Test
+    void longBodyIsCutBeforeMatching() throws IOException {
+        JsonNode alert = corpus().stream().filter(c -> textOrNull(c, "template") != null).findFirst().orElseThrow();
+        String tail = " Regards, Customer Care.".repeat(2_000);
+        String text = alert.get("text").asText() + tail;
+
+        ParsedBankMessage expected = parser.parse(alert.get("text").asText()).orElseThrow();
+        ParsedBankMessage parsed = parser.parse(text).orElseThrow();
+        assertEquals(expected.getAmount(), parsed.getAmount());
+        assertEquals(expected.getMerchant(), parsed.getMerchant());
+        assertTrue(BankMessageParser.normalize(text).length() <= BankMessageParser.MAX_TEXT_LENGTH);
+        assertTrue(parser.parse(tail).isEmpty());
+    }
+
+    static List<JsonNode> corpus() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        List<JsonNode> cases = new ArrayList<>();
+        try (InputStream in = BankMessageParserGoldenTests.class.getResourceAsStream(CORPUS)) {
+            assertNotNull(in, CORPUS + " not on the classpath");
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) cases.add(mapper.readTree(line));
+            }
+        }
+        return cases;
+    }
+
+    private static String textOrNull(JsonNode node, String field) {
+        JsonNode v = node.get(field);
+        return v == null || v.isNull() ? null : v.asText();
+    }
+}
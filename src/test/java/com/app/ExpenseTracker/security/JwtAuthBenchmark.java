@@ -0,0 +1,75 @@
+package com.app.ExpenseTracker.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token cost per authenticated request, before and after the shared verifier:
+ * {@code perRequestVerifiers} replays what JwtFilter used to do (build an
+ * Algorithm and a JWTVerifier, verify, then do both again to validate), and
+ * {@code sharedVerifier} is the current single {@link JwtUtil#verify}.
+ * Not part of the test run; start it with
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.app.ExpenseTracker.security.JwtAuthBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(1)
+@Fork(1)
+public class JwtAuthBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret";
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expirationMs", TimeUnit.HOURS.toMillis(1));
+        jwtUtil.init();
+        token = jwtUtil.generateToken(42L, "bench@example.com");
+    }
+
+    /** extractUsername followed by validateToken, each with its own Algorithm and verifier. */
+    @Benchmark
+    public boolean perRequestVerifiers() {
+        String username = JWT.require(Algorithm.HMAC256(SECRET.getBytes())).build().verify(token).getSubject();
+        DecodedJWT again = JWT.require(Algorithm.HMAC256(SECRET.getBytes())).build().verify(token);
+        return again.getSubject().equals(username);
+    }
+
+    @Benchmark
+    public DecodedJWT sharedVerifier() {
+        return jwtUtil.verify(token);
+    }
+
+    /** Same, with several request threads sharing the one verifier. */
+    @Benchmark
+    @Threads(4)
+    public DecodedJWT sharedVerifierContended() {
+        return jwtUtil.verify(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtAuthBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
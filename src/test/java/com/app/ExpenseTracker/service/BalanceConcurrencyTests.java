@@ -0,0 +1,134 @@
+package com.app.ExpenseTracker.service;
+
+import com.app.ExpenseTracker.dto.TransactionRequestDTO;
+import com.app.ExpenseTracker.entity.Account;
+import com.app.ExpenseTracker.entity.User;
+import com.app.ExpenseTracker.exception.NotFoundException;
+import com.app.ExpenseTracker.repository.AccountRepository;
+import com.app.ExpenseTracker.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Parallel writers creating, updating (including moving rows between accounts)
+ * and deleting transactions on the same two accounts must leave each
+ * balance_estimate equal to the sum of its transactions and of its ledger.
+ * Not @Transactional: every operation has to commit on its own.
+ */
+@SpringBootTest
+class BalanceConcurrencyTests {
+
+    static final int WRITERS = 8;
+    static final int OPERATIONS_PER_WRITER = 100;
+
+    @Autowired private TransactionService transactionService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private AccountRepository accountRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+    private final List<Long> accountIds = new ArrayList<>();
+    private final List<Long> transactionIds = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setEmail("balance-stress-" + UUID.randomUUID() + "@example.com");
+        user.setPassword("x");
+        userRepository.save(user);
+        userId = user.getId();
+        for (String name : List.of("Cash", "Card")) {
+            Account a = new Account();
+            a.setUser(user);
+            a.setName(name);
+            accountIds.add(accountRepository.save(a).getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        // accounts, transactions, ledger and rollups all cascade from the user
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+    }
+
+    @Test
+    void parallelWritersLeaveNoDrift() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int w = 0; w < WRITERS; w++) {
+                writers.add(pool.submit(() -> {
+                    for (int i = 0; i < OPERATIONS_PER_WRITER; i++) step();
+                    return null;
+                }));
+            }
+            for (Future<?> f : writers) f.get(2, TimeUnit.MINUTES);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        for (Long accountId : accountIds) {
+            BigDecimal estimate = jdbcTemplate.queryForObject(
+                    "SELECT COALESCE(balance_estimate, 0) FROM accounts WHERE id = ?", BigDecimal.class, accountId);
+            BigDecimal fromRows = jdbcTemplate.queryForObject(
+                    "SELECT COALESCE(SUM(CASE WHEN UPPER(type) = 'DEBIT' THEN -amount ELSE amount END), 0) " +
+                    "FROM transactions WHERE account_id = ?", BigDecimal.class, accountId);
+            BigDecimal fromLedger = jdbcTemplate.queryForObject(
+                    "SELECT COALESCE(SUM(amount), 0) FROM ledger_entries WHERE account_id = ?", BigDecimal.class, accountId);
+            assertEquals(0, fromRows.compareTo(estimate), "balance vs transactions of account " + accountId);
+            assertEquals(0, fromLedger.compareTo(estimate), "balance vs ledger of account " + accountId);
+        }
+    }
+
+    private void step() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int op = random.nextInt(10);
+        Long existing = pick(random);
+        try {
+            if (op < 4 || existing == null) {
+                transactionIds.add(transactionService.createTransaction(userId, request(random)).getId());
+            } else if (op < 5) {
+                transactionService.createTransactions(userId, List.of(request(random), request(random), request(random)))
+                        .forEach(t -> transactionIds.add(t.getId()));
+            } else if (op < 8) {
+                transactionService.updateTransaction(userId, existing, request(random));
+            } else {
+                transactionService.deleteTransaction(userId, existing);
+                transactionIds.remove(existing);
+            }
+        } catch (NotFoundException ex) {
+            // another writer deleted the row first
+        }
+    }
+
+    private TransactionRequestDTO request(ThreadLocalRandom random) {
+        TransactionRequestDTO dto = new TransactionRequestDTO();
+        dto.setAccountId(accountIds.get(random.nextInt(accountIds.size())));
+        dto.setAmount(BigDecimal.valueOf(random.nextInt(1, 100_000), 2));
+        dto.setMerchant("Stress");
+        dto.setType(random.nextBoolean() ? "DEBIT" : "CREDIT");
+        return dto;
+    }
+
+    private Long pick(ThreadLocalRandom random) {
+        List<Long> ids = List.copyOf(transactionIds);
+        return ids.isEmpty() ? null : ids.get(random.nextInt(ids.size()));
+    }
+}
@@ -0,0 +1,92 @@
+package com.app.ExpenseTracker.service;
+
+import com.app.ExpenseTracker.entity.Account;
+import com.app.ExpenseTracker.entity.User;
+import com.app.ExpenseTracker.repository.AccountRepository;
+import com.app.ExpenseTracker.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Point-in-time balances follow the date the money moved, not the date the
+ * entry was written, including for writes that land behind a snapshot.
+ * Not @Transactional: the snapshot job runs its own transactions.
+ */
+@SpringBootTest
+class LedgerHistoryTests {
+
+    @Autowired private BalanceService balanceService;
+    @Autowired private LedgerService ledgerService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private AccountRepository accountRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private Long userId;
+    private Long accountId;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setEmail("ledger-history-" + UUID.randomUUID() + "@example.com");
+        user.setPassword("x");
+        userRepository.save(user);
+        userId = user.getId();
+        Account a = new Account();
+        a.setUser(user);
+        a.setName("Cash");
+        accountId = accountRepository.save(a).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+    }
+
+    @Test
+    void backdatedBatchCountsFromItsOwnDate() {
+        Instant now = Instant.now();
+        book(now.minus(Duration.ofDays(10)), "100.00");
+
+        assertBalance("0", now.minus(Duration.ofDays(11)));
+        assertBalance("100.00", now.minus(Duration.ofDays(9)));
+        assertBalance("100.00", now);
+    }
+
+    @Test
+    void backdatedWriteAfterASnapshotIsNotHiddenByIt() {
+        Instant now = Instant.now();
+        book(now.minus(Duration.ofDays(10)), "100.00");
+        ledgerService.snapshotAndReconcile();
+
+        book(now.minus(Duration.ofDays(5)), "-30.00");
+
+        assertBalance("100.00", now.minus(Duration.ofDays(6)));
+        assertBalance("70.00", now.plusSeconds(1));
+    }
+
+    private void book(Instant at, String amount) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            BalanceService.Deltas deltas = new BalanceService.Deltas();
+            deltas.add(accountId, at, new BigDecimal(amount));
+            balanceService.applyDeltas(deltas);
+        });
+    }
+
+    private void assertBalance(String expected, Instant at) {
+        assertEquals(0, new BigDecimal(expected).compareTo(ledgerService.balanceAt(accountId, at)), "balance at " + at);
+    }
+}
@@ -0,0 +1,89 @@
+package com.app.ExpenseTracker.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A change committed while a load is in flight must win over that load, or the
+ * cache would serve rows from before the change until the entry expires.
+ */
+class PerUserCacheTests {
+
+    private final PerUserCache<String> cache =
+            new PerUserCache<>(new SimpleMeterRegistry(), "test", 100, Duration.ofMinutes(30));
+
+    @Test
+    void concurrentCallersShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> cache.get(1L, id -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return "rows";
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> cache.get(1L, id -> {
+            loads.incrementAndGet();
+            return "other rows";
+        }));
+        release.countDown();
+
+        assertEquals("rows", first.get(5, TimeUnit.SECONDS));
+        assertEquals("rows", second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void updateDuringLoadDiscardsTheLoadedValue() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> stale = CompletableFuture.supplyAsync(() -> cache.get(1L, id -> {
+            loading.countDown();
+            await(release);
+            return "before";
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        cache.updateAfterCommit(1L, v -> v + " and after");
+        release.countDown();
+
+        // the caller whose read started before the change still sees what it read
+        assertEquals("before", stale.get(5, TimeUnit.SECONDS));
+        assertEquals("after", cache.get(1L, id -> "after"));
+    }
+
+    @Test
+    void updateAppliesToALoadedValue() {
+        cache.get(1L, id -> "a");
+        cache.updateAfterCommit(1L, v -> v + "b");
+
+        assertEquals("ab", cache.get(1L, id -> fail("loaded again")));
+    }
+
+    @Test
+    void failedLoadIsNotCached() {
+        assertThrows(IllegalStateException.class, () -> cache.get(1L, id -> {
+            throw new IllegalStateException("db down");
+        }));
+
+        assertEquals("rows", cache.get(1L, id -> "rows"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.app.ExpenseTracker.service.impl;
+
+import com.app.ExpenseTracker.dto.CursorPage;
+import com.app.ExpenseTracker.dto.TransactionResponseDTO;
+import com.app.ExpenseTracker.entity.Account;
+import com.app.ExpenseTracker.entity.Category;
+import com.app.ExpenseTracker.entity.TransactionEntity;
+import com.app.ExpenseTracker.entity.User;
+import com.app.ExpenseTracker.repository.AccountRepository;
+import com.app.ExpenseTracker.repository.CategoryRepository;
+import com.app.ExpenseTracker.repository.TransactionRepository;
+import com.app.ExpenseTracker.repository.UserRepository;
+import com.app.ExpenseTracker.service.TransactionService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * List endpoints must cost a fixed number of statements per page, however many
+ * users, accounts and categories the rows point at.
+ */
+@SpringBootTest
+@Transactional
+class TransactionListQueryCountTests {
+
+    static final AtomicInteger STATEMENTS = new AtomicInteger();
+
+    @TestConfiguration
+    static class CountingDataSourceConfig {
+        @Bean
+        static BeanPostProcessor countingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource ds ? proxy(DataSource.class, ds) : bean;
+                }
+            };
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (p, method, args) -> {
+                String name = method.getName();
+                if (name.equals("prepareStatement") || name.equals("prepareCall") || name.equals("createStatement")) {
+                    STATEMENTS.incrementAndGet();
+                }
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                return result instanceof Connection c ? proxy(Connection.class, c) : result;
+            });
+        }
+    }
+
+    @Autowired private TransactionService transactionService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private AccountRepository accountRepository;
+    @Autowired private CategoryRepository categoryRepository;
+    @Autowired private TransactionRepository transactionRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Long userId;
+    private Long groceriesId;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setEmail("query-count-" + UUID.randomUUID() + "@example.com");
+        user.setPassword("x");
+        userRepository.save(user);
+        userId = user.getId();
+
+        Account[] accounts = {account(user, "Cash"), account(user, "Card")};
+        Category[] categories = {category("Groceries"), category("Travel")};
+        groceriesId = categories[0].getId();
+
+        Instant start = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < 6; i++) {
+            TransactionEntity t = new TransactionEntity();
+            t.setUser(user);
+            t.setAccount(accounts[i % 2]);
+            t.setCategory(categories[i % 2]);
+            t.setMerchant("Merchant " + i);
+            t.setAmount(BigDecimal.TEN);
+            t.setType("DEBIT");
+            t.setTxnDate(start.minusSeconds(i));
+            transactionRepository.save(t);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        STATEMENTS.set(0);
+    }
+
+    @Test
+    void listPageIsOneSelectAndOneCount() {
+        Page<TransactionResponseDTO> page = transactionService.listTransactions(userId,
+                PageRequest.of(0, 4, Sort.by("txnDate").descending()));
+
+        assertEquals(4, page.getContent().size());
+        assertEquals(6, page.getTotalElements());
+        assertNotNull(page.getContent().get(0).getCategoryName());
+        assertEquals(2, STATEMENTS.get());
+    }
+
+    @Test
+    void categoryPageIsOneSelectAndOneCount() {
+        Page<TransactionResponseDTO> page = transactionService.listTransactionsByCategory(userId, groceriesId,
+                PageRequest.of(0, 2, Sort.by("txnDate").descending()));
+
+        assertEquals(2, page.getContent().size());
+        assertEquals(3, page.getTotalElements());
+        assertEquals(2, STATEMENTS.get());
+    }
+
+    @Test
+    void scrollSliceIsOneSelect() {
+        CursorPage<TransactionResponseDTO> slice = transactionService.scrollTransactions(userId, null, 4);
+
+        assertEquals(4, slice.getItems().size());
+        assertNotNull(slice.getNextCursor());
+        assertEquals(1, STATEMENTS.get());
+    }
+
+    private Account account(User user, String name) {
+        Account a = new Account();
+        a.setUser(user);
+        a.setName(name);
+        return accountRepository.save(a);
+    }
+
+    private Category category(String name) {
+        Category c = new Category();
+        c.setUserId(userId);
+        c.setName(name);
+        return categoryRepository.save(c);
+    }
+}